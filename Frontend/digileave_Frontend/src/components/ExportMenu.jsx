@@ -4,6 +4,7 @@ import { authHeader } from "../utils/auth";
 import { csvExport } from "../utils/csvExport";
 import { xlsxExport } from "../utils/xlsxExport"; 
 import { BASE_API_URL } from "../utils/base_api_url";
+import { fetchAllPages } from "../utils/fetchAllPages";
 
 import "../styles/exportmenu.css";
 
@@ -59,21 +60,31 @@ function firstOfYearIso() { const d = new Date(); d.setMonth(0,1); return d.toIS
 function loadLastExportTo() { return localStorage.getItem("digileave:lastExportTo") || null; }
 function saveLastExportTo(dateIso) { localStorage.setItem("digileave:lastExportTo", dateIso); }
 
-function overlaps(req, fromIso, toIso) {
-  if (!fromIso && !toIso) return true;
-  const s = req.startDate;
-  const e = req.endDate;
-  if (fromIso && e < fromIso) return false;
-  if (toIso && s > toIso) return false;
-  return true;
+// Requests are exported by the server (streamed, joined to users there) - we only download the file
+async function downloadRequestsExport({ fields, fromIso, toIso, format }) {
+  const params = new URLSearchParams({ format: format.toLowerCase() });
+  if (fromIso) params.set("from", fromIso);
+  if (toIso) params.set("to", toIso);
+  fields.forEach(f => params.append("fields", f));
+
+  const res = await fetch(`${BASE_API_URL}/approver/requests/export?${params}`, { headers: authHeader() });
+  if (!res.ok) throw new Error(`Export failed (${res.status})`);
+  const blob = await res.blob();
+
+  const url = URL.createObjectURL(blob);
+  const a = document.createElement("a");
+  a.href = url;
+  a.download = `requests-export.${format.toLowerCase()}`;
+  document.body.appendChild(a);
+  a.click();
+  a.remove();
+  URL.revokeObjectURL(url);
 }
 
 export default function ExportMenu({ onClose }) {
   const [role, setRole] = useState(null);
   const [dataset, setDataset] = useState("REQUESTS");
 
-  const [assignees, setAssignees] = useState([]);
-  const [requests, setRequests] = useState([]);
   const [adminUsers, setAdminUsers] = useState([]);
 
   const [preset, setPreset] = useState(PRESETS.LAST_TO_NOW);
@@ -83,10 +94,9 @@ export default function ExportMenu({ onClose }) {
   const [requestFields, setRequestFields] = useState(REQUEST_FIELDS_DEFAULT);
   const [userFields, setUserFields] = useState(USER_FIELDS_DEFAULT);
 
-  const [sortBy, setSortBy] = useState("startDate");
-  const [sortDir, setSortDir] = useState("asc");
-
   const [format, setFormat] = useState("CSV");
+  const [exporting, setExporting] = useState(false);
+  const [error, setError] = useState(null);
 
   useEffect(() => {
     (async () => {
@@ -99,24 +109,15 @@ export default function ExportMenu({ onClose }) {
 
   useEffect(() => {
     if (!role) return;
-    const fetchForRequests = async () => {
-      const [assigneesRes, requestsRes] = await Promise.all([
-        fetch(`${BASE_API_URL}/approver/assignees`, { headers: authHeader() }),
-        fetch(`${BASE_API_URL}/approver/requests`, { headers: authHeader() }),
-      ]);
-      if (assigneesRes.ok) setAssignees(await assigneesRes.json());
-      if (requestsRes.ok) setRequests(await requestsRes.json());
-    };
     const fetchForUsers = async () => {
       if (role === "ADMIN") {
-        const res = await fetch(`${BASE_API_URL}/admin/users`, { headers: authHeader() });
+        const res = await fetchAllPages(`${BASE_API_URL}/admin/users`, { headers: authHeader() });
         if (res.ok) setAdminUsers(await res.json());
       } else {
-        const res = await fetch(`${BASE_API_URL}/approver/assignees`, { headers: authHeader() });
+        const res = await fetchAllPages(`${BASE_API_URL}/approver/assignees`, { headers: authHeader() });
         if (res.ok) setAdminUsers(await res.json());
       }
     };
-    fetchForRequests();
     fetchForUsers();
   }, [role]);
 
@@ -137,42 +138,6 @@ export default function ExportMenu({ onClose }) {
     }
   }, [preset]);
 
-  const requestRows = useMemo(() => {
-    const byId = new Map(assignees.map(u => [u.id, u]));
-    const rows = requests
-      .filter(r => overlaps(r, fromDate || null, toDate || null))
-      .map(r => {
-        const u = byId.get(r.userId);
-        const decidedByUser = r.decidedByUserId ? byId.get(r.decidedByUserId) : null;
-        return {
-          requestId: r.id,
-          assigneeId: r.userId,
-          assigneeName: u?.fullName || r.userId,
-          assigneeEmail: u?.email || "",
-          startDate: r.startDate,
-          endDate: r.endDate,
-          workdaysCount: r.workdaysCount,
-          status: r.status,
-          type: r.type,
-          comment: r.comment || "",
-          decidedBy: decidedByUser?.fullName || r.decidedByUserId || "",
-          decidedAt: r.decidedAt || "",
-        };
-      });
-
-    const dir = sortDir === "asc" ? 1 : -1;
-    rows.sort((a, b) => {
-      const av = a[sortBy], bv = b[sortBy];
-      if (av == null && bv == null) return 0;
-      if (av == null) return -1 * dir;
-      if (bv == null) return 1 * dir;
-      if (av === bv) return 0;
-      return (av < bv ? -1 : 1) * dir;
-    });
-
-    return rows;
-  }, [assignees, requests, fromDate, toDate, sortBy, sortDir]);
-
   const userRows = useMemo(() => {
     return [...adminUsers]
       .sort((a, b) => (a.fullName || "").localeCompare(b.fullName || ""))
@@ -189,19 +154,28 @@ export default function ExportMenu({ onClose }) {
   }, [adminUsers]);
 
   const onExport = async () => {
-    const rows = dataset === "REQUESTS" ? requestRows : userRows;
-    const fields = dataset === "REQUESTS" ? requestFields : userFields;
-    const filenameBase = dataset === "REQUESTS" ? "requests-export" : "users-export";
+    setError(null);
+    if (dataset === "REQUESTS") {
+      setExporting(true);
+      try {
+        await downloadRequestsExport({ fields: requestFields, fromIso: fromDate || null, toIso: toDate || null, format });
+        if (toDate) saveLastExportTo(toDate);
+      } catch (e) {
+        setError(e.message);
+      } finally {
+        setExporting(false);
+      }
+      return;
+    }
 
     if (format === "CSV") {
-      if (dataset === "REQUESTS" && toDate) saveLastExportTo(toDate);
-      csvExport(rows, fields, `${filenameBase}.csv`, HEADERS);
+      csvExport(userRows, userFields, "users-export.csv", HEADERS);
     } else {
       await xlsxExport({
-        rows,
-        fields,
+        rows: userRows,
+        fields: userFields,
         headers: HEADERS,
-        filename: `${filenameBase}.xlsx`,
+        filename: "users-export.xlsx",
       });
     }
   };
@@ -296,12 +270,13 @@ export default function ExportMenu({ onClose }) {
       </div>
 
       <div className="export-footer" style={{ flex: "0 0 auto", paddingTop: 12, display: "flex", alignItems: "center", gap: 12 }}>
-        <button className="btn-primary" onClick={onExport}>
-          Export {format === "CSV" ? "CSV" : "Excel"}
+        <button className="btn-primary" onClick={onExport} disabled={exporting || selectedFields.length === 0}>
+          {exporting ? "Exporting…" : `Export ${format === "CSV" ? "CSV" : "Excel"}`}
         </button>
         <div className="meta">
-          Role: {role || "…"} · Rows: {dataset === "REQUESTS" ? requestRows.length : userRows.length}
+          Role: {role || "…"} · Rows: {dataset === "REQUESTS" ? "all matching" : userRows.length}
         </div>
+        {error && <div className="meta" style={{ color: "crimson" }}>{error}</div>}
       </div>
     </div>
   );
@@ -1,6 +1,8 @@
 import { useEffect, useRef, useState } from "react";
 import { Link } from "react-router-dom";
 import { BASE_API_URL } from "../utils/base_api_url";
+import { authHeader } from "../utils/auth";
+import { AUTH_LOST, RESYNC, subscribeEvents } from "../utils/events";
 import "../styles/header.css";
 
 
@@ -22,13 +24,18 @@ export default function Header() {
   }, [darkMode]);
 
   useEffect(() => {
-    const h = new Headers();
-    import("../utils/auth").then(({ authHeader }) => {
-      Object.entries(authHeader()).forEach(([k, v]) => h.set(k, v));
-      fetch(`${BASE_API_URL}/account`, { headers: h })
+    const loadUser = () =>
+      fetch(`${BASE_API_URL}/account`, { headers: authHeader() })
         .then((res) => (res.ok ? res.json() : null))
         .then(setUser)
         .catch(() => setUser(null));
+    loadUser();
+
+    // Balance changes are pushed; the reload is a 304 unless this user's data changed.
+    // A (re)connect may have missed some, so it reloads too.
+    return subscribeEvents((type) => {
+      if (type === "BALANCE" || type === RESYNC) loadUser();
+      else if (type === AUTH_LOST) setUser(null);
     });
   }, []);
 
@@ -5,6 +5,7 @@ import { STATE } from "../utils/state";
 import { formatDate } from "../utils/formatDate";
 import { formatRole } from "../utils/formatRole";
 import { BASE_API_URL } from "../utils/base_api_url";
+import { fetchAllPages } from "../utils/fetchAllPages";
 import "../styles/account.css";
 
 
@@ -30,7 +31,7 @@ export default function Account() {
         setData(json);
         setState(STATE.READY);
           if (json.role === "APPROVER") {
-            fetch(`${BASE_API_URL}/approver/assignees`, { headers: authHeader() })
+            fetchAllPages(`${BASE_API_URL}/approver/assignees?fields=email`, { headers: authHeader() })
             .then(r => (r.ok ? r.json() : []))
             .then(list => {
               const emails = Array.isArray(list) ? list.map(u => (u && u.email) ? u.email : u).filter(Boolean) : [];
@@ -5,6 +5,7 @@ import EditUserMenu from "../components/UserComponents/EditUserMenu";
 import ExportMenu from "../components/ExportMenu";
 import { authHeader } from "../utils/auth";
 import { BASE_API_URL } from "../utils/base_api_url";
+import { fetchAllPages } from "../utils/fetchAllPages";
 import { ExportIcon, IconSearch } from "../utils/icons"; 
 import "../styles/admin.css";
 
@@ -25,7 +26,7 @@ export default function Admin() {
     (async () => {
       setState("loading");
       try {
-        const res = await fetch(`${BASE_API_URL}/admin/users`, {
+        const res = await fetchAllPages(`${BASE_API_URL}/admin/users`, {
           headers: authHeader(),
         });
         if (!res.ok) {
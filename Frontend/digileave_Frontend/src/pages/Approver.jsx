@@ -1,9 +1,11 @@
-import { useEffect, useMemo, useState } from "react";
+import { useEffect, useMemo, useRef, useState } from "react";
 import ExportMenu from "../components/ExportMenu";
 import RequestsViewMode from "../components/RequestComponents/RequestsViewMode";
 import RequestsViewModeMenu from "../components/RequestComponents/RequestsViewModeMenu";
 import { authHeader } from "../utils/auth";
 import { BASE_API_URL } from "../utils/base_api_url";
+import { fetchAllPages } from "../utils/fetchAllPages";
+import { AUTH_LOST, RESYNC, subscribeEvents } from "../utils/events";
 import "../styles/approver.css";
 import "../styles/admin.css";
 import { ExportIcon } from "../utils/icons";
@@ -42,7 +44,7 @@ export default function Approver() {
       setAssigneesLoading(true);
       setAssigneesErr("");
       try {
-        const res = await fetch(`${BASE_API_URL}/approver/assignees`, { headers: authHeader() });
+        const res = await fetchAllPages(`${BASE_API_URL}/approver/assignees?fields=fullName,email,role,availableLeaveDays`, { headers: authHeader() });
         if (!res.ok) throw new Error(`HTTP ${res.status}`);
         const data = await res.json();
         if (alive) setAssignees(Array.isArray(data) ? data : []);
@@ -59,12 +61,36 @@ export default function Approver() {
     loadAllRequests();
   }, []);
 
+  // New requests and decisions arrive over /events instead of reloading the list.
+  // A (re)connect may have missed some, so it reloads whatever is on screen.
+  const selectedRef = useRef(null);
+  selectedRef.current = selectedAssignee;
+  useEffect(() => subscribeEvents((type, ev) => {
+    if (type === RESYNC) {
+      const selected = selectedRef.current;
+      return selected ? loadAssigneeRequests(selected) : loadAllRequests();
+    }
+    if (type === AUTH_LOST) {
+      setRequestsErr("Your session has expired - sign in again to keep receiving live updates.");
+      return;
+    }
+    if (!ev?.request) return;
+    setRequests((prev) => {
+      if (prev.some((r) => r.id === ev.request.id)) {
+        return prev.map((r) => (r.id === ev.request.id ? { ...r, ...ev.request } : r));
+      }
+      const selected = selectedRef.current;
+      if (type === "CREATED" && (!selected || selected.id === ev.request.userId)) return [ev.request, ...prev];
+      return prev;
+    });
+  }), []);
+
   async function loadAllRequests() {
     setSelectedAssignee(null);
     setRequestsLoading(true);
     setRequestsErr("");
     try {
-      const res = await fetch(`${BASE_API_URL}/approver/requests`, { headers: authHeader() });
+      const res = await fetchAllPages(`${BASE_API_URL}/approver/requests`, { headers: authHeader() });
       if (!res.ok) throw new Error(`HTTP ${res.status}`);
       const data = await res.json();
       setRequests(Array.isArray(data) ? data : []);
@@ -9,6 +9,7 @@ import { STATE } from "../utils/state";
 import { BASE_API_URL } from "../utils/base_api_url";
 import FlashMessage from "../utils/FlashMessage";
 import { getFlashMessage } from "../utils/flashMessageStorage";
+import { AUTH_LOST, RESYNC, subscribeEvents } from "../utils/events";
 
 export default function Requests() {
   const [viewState, setViewState] = useState(STATE.LOADING);
@@ -28,9 +29,9 @@ export default function Requests() {
     let alive = true;
     const ctrl = new AbortController();
 
-    (async () => {
+    async function load(initial) {
       try {
-        setViewState(STATE.LOADING);
+        if (initial) setViewState(STATE.LOADING);
 
         const res = await fetch(`${BASE_API_URL}/requests`, {
           headers: authHeader(),
@@ -52,9 +53,19 @@ export default function Requests() {
       } catch (e) {
         if (alive && e.name !== "AbortError") setViewState(STATE.ERROR);
       }
-    })();
-
-    return () => { alive = false; ctrl.abort(); };
+    }
+    load(true);
+
+    // Decisions / cancellations arrive over /events - patch the row in place.
+    // A (re)connect may have missed some, so it reloads the list quietly.
+    const unsubscribe = subscribeEvents((type, ev) => {
+      if (type === RESYNC) return load(false);
+      if (type === AUTH_LOST) return setViewState(STATE.UNAUTH);
+      if (!ev?.request) return;
+      setData(prev => prev.map(r => (r.id === ev.request.id ? { ...r, ...ev.request } : r)));
+    });
+
+    return () => { alive = false; ctrl.abort(); unsubscribe(); };
   }, []);
 
   useEffect(() =>{
@@ -0,0 +1,91 @@
+import { BASE_API_URL } from "./base_api_url";
+import { authHeader } from "./auth";
+
+const RETRY_MS = 3000;
+
+// Synthetic event types, dispatched by this module rather than the server:
+// RESYNC - the stream reconnected; anything sent while it was down is lost, so reload.
+//          Not sent on the first connect - subscribers load their own data on mount.
+// AUTH_LOST - the server answered 401/403; live updates stop until the user signs in again.
+export const RESYNC = "RESYNC";
+export const AUTH_LOST = "AUTH_LOST";
+
+const listeners = new Set();
+let ctrl = null;
+
+// Subscribes to the /events Server-Sent Events stream. fetch() is used instead of
+// EventSource so the JWT can go in the Authorization header. All subscribers share
+// one connection, which reconnects on drop and closes with the last unsubscribe.
+// Calls onEvent(type, data) per event - including RESYNC on every reconnect and
+// AUTH_LOST when the session is gone - and returns an unsubscribe function.
+export function subscribeEvents(onEvent) {
+  listeners.add(onEvent);
+  if (!ctrl) connect();
+  return () => {
+    listeners.delete(onEvent);
+    if (!listeners.size && ctrl) {
+      ctrl.abort();
+      ctrl = null;
+    }
+  };
+}
+
+async function connect() {
+  const own = (ctrl = new AbortController());
+  let connected = false;
+  while (ctrl === own) {
+    try {
+      const res = await fetch(`${BASE_API_URL}/events`, {
+        headers: { ...authHeader(), Accept: "text/event-stream" },
+        signal: own.signal,
+      });
+      if (res.status === 401 || res.status === 403) {
+        dispatch(AUTH_LOST, null);
+        break;
+      }
+      if (res.ok && res.body) {
+        if (connected) dispatch(RESYNC, null);
+        connected = true;
+        await readStream(res.body, dispatch);
+      }
+    } catch (e) {
+      if (e.name === "AbortError") return;
+    }
+    if (ctrl === own) await new Promise((r) => setTimeout(r, RETRY_MS));
+  }
+  if (ctrl === own) ctrl = null;
+}
+
+function dispatch(type, data) {
+  listeners.forEach((fn) => fn(type, data));
+}
+
+async function readStream(body, onEvent) {
+  const reader = body.pipeThrough(new TextDecoderStream()).getReader();
+  let buffer = "";
+  for (;;) {
+    const { value, done } = await reader.read();
+    if (done) return;
+    buffer += value;
+
+    let end;
+    while ((end = buffer.indexOf("\n\n")) >= 0) {
+      const frame = buffer.slice(0, end);
+      buffer = buffer.slice(end + 2);
+
+      let type = "message";
+      const data = [];
+      for (const line of frame.split("\n")) {
+        if (line.startsWith("event:")) type = line.slice(6).trim();
+        else if (line.startsWith("data:")) data.push(line.slice(5));
+      }
+      if (!data.length) continue; // heartbeat / comment
+
+      try {
+        onEvent(type, JSON.parse(data.join("\n")));
+      } catch {
+        // ignore malformed frames
+      }
+    }
+  }
+}
@@ -1,13 +1,14 @@
 import { authHeader } from "./auth";
 import { csvExport } from "./csvExport";
 import { BASE_API_URL } from "../utils/base_api_url";
+import { fetchAllPages } from "./fetchAllPages";
 
 
 export async function exportApproverRequestsCsv() {
   // 1) fetch assignees + requests in parallel
   const [assigneesRes, requestsRes] = await Promise.all([
-    fetch(`${BASE_API_URL}/approver/assignees`, { headers: authHeader() }),
-    fetch(`${BASE_API_URL}/approver/requests`, { headers: authHeader() }),
+    fetchAllPages(`${BASE_API_URL}/approver/assignees?fields=fullName,email`, { headers: authHeader() }),
+    fetchAllPages(`${BASE_API_URL}/approver/requests`, { headers: authHeader() }),
   ]);
 
   if (!assigneesRes.ok) throw new Error("Failed to fetch assignees");
@@ -0,0 +1,25 @@
+const NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+// Follows the X-Next-Cursor header of keyset-paginated endpoints and
+// resolves to a single Response holding the concatenated JSON array.
+export async function fetchAllPages(url, options = {}) {
+  const items = [];
+  let cursor = null;
+
+  do {
+    const pageUrl = new URL(url);
+    if (cursor) pageUrl.searchParams.set("cursor", cursor);
+
+    const res = await fetch(pageUrl, options);
+    if (!res.ok) return res;
+
+    const page = await res.json();
+    if (Array.isArray(page)) items.push(...page);
+    cursor = res.headers.get(NEXT_CURSOR_HEADER);
+  } while (cursor);
+
+  return new Response(JSON.stringify(items), {
+    status: 200,
+    headers: { "Content-Type": "application/json" },
+  });
+}
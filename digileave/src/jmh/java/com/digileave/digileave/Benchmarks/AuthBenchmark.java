@@ -0,0 +1,71 @@
+package com.digileave.digileave.Benchmarks;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.digileave.digileave.Models.enums.Role;
+import com.digileave.digileave.Security.JwtAuthFilter;
+import com.digileave.digileave.Security.VerifiedTokenCache;
+import com.digileave.digileave.Services.JwtService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+
+// # JWT issue / verify and the full auth filter (cached token path)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AuthBenchmark {
+
+    private JwtService jwt;
+    private VerifiedTokenCache tokens;
+    private JwtAuthFilter filter;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwt = new JwtService();
+        tokens = new VerifiedTokenCache(jwt, new SimpleMeterRegistry());
+        filter = new JwtAuthFilter(tokens);
+        token = jwt.createJwtToken("64f1c0ffee0000000000beef", "bench@digitoll.bg", Role.APPROVER, Duration.ofHours(8));
+    }
+
+    @Benchmark
+    public String createJwtToken() {
+        return jwt.createJwtToken("64f1c0ffee0000000000beef", "bench@digitoll.bg", Role.APPROVER, Duration.ofHours(8));
+    }
+
+    @Benchmark
+    public Object parseJwtToken() {
+        return jwt.parseJwtToken(token);
+    }
+
+    @Benchmark
+    public Object authenticateCached() {
+        return tokens.authenticate(token);
+    }
+
+    @Benchmark
+    public void filterWithBearerToken(Blackhole bh) throws ServletException, IOException {
+        var req = new MockHttpServletRequest("GET", "/requests");
+        req.addHeader("Authorization", "Bearer " + token);
+        var res = new MockHttpServletResponse();
+        filter.doFilter(req, res, new MockFilterChain());
+        bh.consume(SecurityContextHolder.getContext().getAuthentication());
+        SecurityContextHolder.clearContext();
+    }
+}
@@ -0,0 +1,99 @@
+package com.digileave.digileave.Benchmarks;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.digileave.digileave.DigileaveApplication;
+import com.digileave.digileave.Models.enums.Role;
+import com.digileave.digileave.Services.JwtService;
+
+/**
+ * Requests/s with {@value #CLIENTS} concurrent clients against an endpoint that blocks like a
+ * Mongo round trip, in platform-thread and virtual-thread mode. Runs on the inmemory profile;
+ * virtual mode only differs on a Java 21+ runtime (JAVA_HOME for the forked JVM).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+public class ConcurrencyBenchmark {
+
+    static final int CLIENTS = 1000;
+    static final long BLOCKING_MS = 10;
+
+    // # Stand-in for a controller waiting on Mongo
+    @RestController
+    public static class BlockingEndpoint {
+        @GetMapping("/bench/blocking")
+        public String blocking() throws InterruptedException {
+            Thread.sleep(BLOCKING_MS);
+            return "ok";
+        }
+    }
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    private ConfigurableApplicationContext app;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void start() {
+        app = new SpringApplicationBuilder(DigileaveApplication.class, BlockingEndpoint.class)
+                .profiles(virtualThreads ? new String[] {"inmemory", "virtual"} : new String[] {"inmemory"})
+                .properties("server.port=0", "server.tomcat.accept-count=" + CLIENTS)
+                .run();
+        int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+        String token = app.getBean(JwtService.class)
+                .createJwtToken("64f1c0ffee0000000000beef", "bench@digitoll.bg", Role.USER, Duration.ofHours(1));
+
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/bench/blocking"))
+                .header("Authorization", "Bearer " + token)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        app.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CLIENTS)
+    public int burst() {
+        @SuppressWarnings("unchecked")
+        CompletableFuture<HttpResponse<Void>>[] inFlight = new CompletableFuture[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            inFlight[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+        }
+        int ok = 0;
+        for (var f : inFlight) {
+            if (f.join().statusCode() == 200) ok++;
+        }
+        return ok;
+    }
+}
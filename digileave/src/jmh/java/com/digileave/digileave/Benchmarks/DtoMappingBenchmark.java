@@ -0,0 +1,42 @@
+package com.digileave.digileave.Benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.digileave.digileave.DTOs.RequestExportDto;
+import com.digileave.digileave.DTOs.UserExportDto;
+import com.digileave.digileave.Models.Request;
+import com.digileave.digileave.Models.User;
+
+// # Entity -> export DTO mapping
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DtoMappingBenchmark {
+
+    private Request request;
+    private User user;
+
+    @Setup
+    public void setup() {
+        request = Fixtures.request(0);
+        user = Fixtures.user(0);
+    }
+
+    @Benchmark
+    public RequestExportDto requestExportDto() {
+        return RequestExportDto.from(request);
+    }
+
+    @Benchmark
+    public UserExportDto userExportDto() {
+        return UserExportDto.from(user);
+    }
+}
@@ -0,0 +1,47 @@
+package com.digileave.digileave.Benchmarks;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import com.digileave.digileave.Models.Request;
+import com.digileave.digileave.Models.User;
+import com.digileave.digileave.Models.enums.LeaveType;
+import com.digileave.digileave.Models.enums.Role;
+import com.digileave.digileave.Models.enums.Status;
+
+// # Deterministic sample documents
+final class Fixtures {
+
+    private Fixtures() {}
+
+    static Request request(int i) {
+        var r = new Request();
+        r.setId(String.format("64f1c0ffee%014x", i));
+        r.setUserId(String.format("64f1beef00%014x", i % 50));
+        r.setStartDate(LocalDate.of(2024, 1, 1).plusDays(i % 365));
+        r.setEndDate(LocalDate.of(2024, 1, 1).plusDays(i % 365 + 4));
+        r.setWorkdaysCount(5);
+        r.setStatus(Status.values()[i % Status.values().length]);
+        r.setType(LeaveType.values()[i % LeaveType.values().length]);
+        r.setComment("Family trip to the seaside, back on Monday");
+        r.setDecision_Seen(i % 2 == 0);
+        r.setDecidedByUserId("64f1beef0000000000000001");
+        r.setDecidedAt(Instant.parse("2024-01-01T10:00:00Z").plusSeconds(i));
+        r.setCreatedAt(Instant.parse("2023-12-01T10:00:00Z").plusSeconds(i));
+        return r;
+    }
+
+    static User user(int i) {
+        var u = new User();
+        u.setId(String.format("64f1beef00%014x", i));
+        u.setEmail("user" + i + "@digitoll.bg");
+        u.setFullName("User Number " + i);
+        u.setRole(Role.USER);
+        u.setAvailableLeaveDays(20);
+        u.setContractLeaveDays(20);
+        u.setWorkingSince(LocalDate.of(2020, 3, 15));
+        u.setAssigneeIds(List.of("64f1beef0000000000000002", "64f1beef0000000000000003"));
+        return u;
+    }
+}
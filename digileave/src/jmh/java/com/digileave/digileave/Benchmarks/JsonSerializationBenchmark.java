@@ -0,0 +1,84 @@
+package com.digileave.digileave.Benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.digileave.digileave.DTOs.RequestExportDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+// # Jackson serialization of large request listings - Spring's default path vs JsonConfig's
+// ! Single-threaded average time is the CPU cost per response; bytes are printed at tear-down
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JsonSerializationBenchmark {
+
+    @Param({"100", "10000"})
+    public int size;
+
+    private ObjectMapper mapper;
+    private ObjectWriter cachedWriter;
+    private List<RequestExportDto> payload;
+
+    @Setup
+    public void setup() {
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+        // Same as the MVC path with JsonConfig: Blackbird accessors + one prefetched writer for the body type
+        cachedWriter = Jackson2ObjectMapperBuilder.json().modulesToInstall(new BlackbirdModule()).build()
+                .writerFor(new TypeReference<List<RequestExportDto>>() {});
+        payload = IntStream.range(0, size)
+                .mapToObj(i -> RequestExportDto.from(Fixtures.request(i)))
+                .toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void reportBytes() throws IOException {
+        byte[] raw = cachedWriter.writeValueAsBytes(payload);
+        System.out.printf("%n[size=%d] bytes per response: identity=%d gzip=%d (%.1f%%)%n",
+                size, raw.length, gzip(raw).length, 100.0 * gzip(raw).length / raw.length);
+    }
+
+    @Benchmark
+    public byte[] serializeRequestList() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(payload);
+    }
+
+    @Benchmark
+    public byte[] serializeRequestListCachedWriter() throws JsonProcessingException {
+        return cachedWriter.writeValueAsBytes(payload);
+    }
+
+    // What server.compression adds on top for a client sending Accept-Encoding: gzip
+    @Benchmark
+    public byte[] serializeRequestListGzip() throws IOException {
+        return gzip(cachedWriter.writeValueAsBytes(payload));
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        var out = new ByteArrayOutputStream(body.length / 4);
+        try (var gz = new GZIPOutputStream(out)) {
+            gz.write(body);
+        }
+        return out.toByteArray();
+    }
+}
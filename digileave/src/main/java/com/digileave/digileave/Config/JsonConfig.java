@@ -0,0 +1,54 @@
+package com.digileave.digileave.Config;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+// # JSON response path - generated accessors plus one pre-resolved ObjectWriter per response type
+@Configuration
+public class JsonConfig {
+
+  // Picked up by Boot's Jackson auto-configuration, so MVC, NDJSON and SSE all use it
+  @Bean
+  public BlackbirdModule blackbirdModule() {
+    return new BlackbirdModule();
+  }
+
+  // Replaces Boot's default converter (same ObjectMapper)
+  @Bean
+  public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper mapper) {
+    return new CachedWriterConverter(mapper);
+  }
+
+  /**
+   * Spring builds a fresh ObjectWriter per response and, for collections, looks the root
+   * serializer up again each time. Here the writer for each declared body type is built once -
+   * with its root serializer prefetched - and reused. Only plain writes are cached (no JSON
+   * view / filters), and only for container or final types, where a static root type can't
+   * change what gets written.
+   */
+  static final class CachedWriterConverter extends MappingJackson2HttpMessageConverter {
+
+    private final ConcurrentHashMap<JavaType, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    CachedWriterConverter(ObjectMapper mapper) {
+      super(mapper);
+    }
+
+    @Override
+    protected ObjectWriter customizeWriter(ObjectWriter writer, JavaType javaType, MediaType contentType) {
+      if (javaType == null || !(javaType.isContainerType() || javaType.isFinal())) return writer;
+      var config = writer.getConfig();
+      if (config.getActiveView() != null || config.getFilterProvider() != null) return writer;
+      return writers.computeIfAbsent(javaType, t -> getObjectMapper().writerFor(t));
+    }
+  }
+}
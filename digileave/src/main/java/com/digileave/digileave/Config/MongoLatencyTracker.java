@@ -0,0 +1,94 @@
+package com.digileave.digileave.Config;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.bson.BsonBoolean;
+import org.bson.BsonDocument;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// # Smoothed latency of single-document Mongo writes, fed by the driver - admission control sheds writes on it
+@Component
+public class MongoLatencyTracker implements CommandListener {
+
+  // Each sample moves the average 1/8 of the way - a few slow commands don't trip it, a slow server does
+  private static final int SHIFT = 3;
+  // With no traffic there is nothing to measure; an old average must not keep shedding forever
+  private static final long STALE_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+  private final AtomicLong ewmaNanos = new AtomicLong();
+  // Request ids of started single-document writes, until their succeeded / failed event
+  private final Set<Integer> sampled = ConcurrentHashMap.newKeySet();
+  private volatile long lastSampleAt = System.nanoTime() - STALE_NANOS;
+
+  public MongoLatencyTracker(MeterRegistry meterRegistry) {
+    Gauge.builder("mongo.command.latency.ewma", this, t -> t.currentMillis())
+        .description("Smoothed Mongo write command latency seen by admission control")
+        .baseUnit("milliseconds")
+        .register(meterRegistry);
+  }
+
+  @Override
+  public void commandStarted(CommandStartedEvent event) {
+    if (isSingleDocumentWrite(event.getCommandName(), event.getCommand())) sampled.add(event.getRequestId());
+  }
+
+  @Override
+  public void commandSucceeded(CommandSucceededEvent event) {
+    if (sampled.remove(event.getRequestId())) record(event.getElapsedTime(TimeUnit.NANOSECONDS));
+  }
+
+  @Override
+  public void commandFailed(CommandFailedEvent event) {
+    if (sampled.remove(event.getRequestId())) record(event.getElapsedTime(TimeUnit.NANOSECONDS));
+  }
+
+  /**
+   * Only the kind of write admission control guards - one document per command. Bulk imports,
+   * updateMany / pipeline updates, recounts, aggregates and export getMores take seconds by
+   * design; sampling them would shed every user's writes whenever an admin job runs.
+   */
+  public static boolean isSingleDocumentWrite(String commandName, BsonDocument command) {
+    switch (commandName) {
+      case "findAndModify":
+        return true;
+      case "insert": {
+        var documents = command.get("documents");
+        return documents != null && documents.isArray() && documents.asArray().size() == 1;
+      }
+      case "update": {
+        var updates = command.get("updates");
+        if (updates == null || !updates.isArray() || updates.asArray().size() != 1) return false;
+        var statement = updates.asArray().get(0).asDocument();
+        return !statement.getBoolean("multi", BsonBoolean.FALSE).getValue();
+      }
+      default:
+        return false;
+    }
+  }
+
+  // # Lock-free: the driver reports from every pooled connection at once
+  public void record(long nanos) {
+    long prev, next;
+    do {
+      prev = ewmaNanos.get();
+      next = prev + ((nanos - prev) >> SHIFT);
+    } while (!ewmaNanos.compareAndSet(prev, next));
+    lastSampleAt = System.nanoTime();
+  }
+
+  public double currentMillis() {
+    if (System.nanoTime() - lastSampleAt > STALE_NANOS) return 0;
+    return ewmaNanos.get() / 1_000_000.0;
+  }
+}
@@ -0,0 +1,25 @@
+package com.digileave.digileave.Config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// # Mongo connection pool sizing - with virtual threads the pool, not Tomcat, is the concurrency cap
+@Configuration
+public class MongoPoolConfig {
+
+  @Bean
+  public MongoClientSettingsBuilderCustomizer mongoPoolCustomizer(
+      @Value("${digileave.mongo.pool.max-size:100}") int maxSize,
+      @Value("${digileave.mongo.pool.max-wait-ms:120000}") long maxWaitMs,
+      MongoLatencyTracker latency) {
+    return settings -> settings
+        .applyToConnectionPoolSettings(pool -> pool
+            .maxSize(maxSize)
+            .maxWaitTime(maxWaitMs, TimeUnit.MILLISECONDS))
+        .addCommandListener(latency);
+  }
+}
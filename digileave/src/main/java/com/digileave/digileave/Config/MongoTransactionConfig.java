@@ -0,0 +1,24 @@
+package com.digileave.digileave.Config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// # Multi-document transactions - needs a replica set (Atlas is one), so opt-in
+@Configuration
+@ConditionalOnProperty(name = "digileave.mongo.transactions", havingValue = "true")
+public class MongoTransactionConfig {
+
+  @Bean
+  public MongoTransactionManager transactionManager(MongoDatabaseFactory factory) {
+    return new MongoTransactionManager(factory);
+  }
+
+  @Bean
+  public TransactionTemplate transactionTemplate(MongoTransactionManager transactionManager) {
+    return new TransactionTemplate(transactionManager);
+  }
+}
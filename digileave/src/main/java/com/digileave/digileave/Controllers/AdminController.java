@@ -1,18 +1,36 @@
 package com.digileave.digileave.Controllers;
 
+import com.digileave.digileave.DTOs.FieldSet;
+import com.digileave.digileave.DTOs.PageCursor;
 import com.digileave.digileave.DTOs.UserExportDto;
+import com.digileave.digileave.DTOs.UserImportResultDto;
 import com.digileave.digileave.DTOs.UserPatchDto;
 import com.digileave.digileave.Models.User;
+import com.digileave.digileave.Repositories.LeaveUsageRepository;
+import com.digileave.digileave.Repositories.RequestRepository;
 import com.digileave.digileave.Repositories.UserRepository;
+import com.digileave.digileave.Services.AssigneeIndex;
 import com.digileave.digileave.Services.LeaveDaysAdditionService;
+import com.digileave.digileave.Services.UserDataVersions;
+import com.digileave.digileave.Services.UserImportService;
+import com.digileave.digileave.Services.WorkingDayCalendar;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 
 import java.util.*;
 
 import org.springframework.security.access.prepost.PreAuthorize;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 @RestController
@@ -21,21 +39,55 @@ import jakarta.validation.Valid;
 public class AdminController {
 
     private final LeaveDaysAdditionService leaveDaysAdditionService;
+    private final AssigneeIndex assigneeIndex;
+    private final WorkingDayCalendar workingDays;
+    private final UserDataVersions versions;
+    private final UserImportService userImport;
+
+    private static final int RECOMPUTE_CHUNK_SIZE = 1000;
 
     // # DB Operations
     private final UserRepository users;
-    public AdminController(UserRepository users , LeaveDaysAdditionService leaveDaysAdditionService) {
+    private final RequestRepository requests;
+    private final LeaveUsageRepository usage;
+    public AdminController(UserRepository users , RequestRepository requests, LeaveUsageRepository usage,
+                           LeaveDaysAdditionService leaveDaysAdditionService, AssigneeIndex assigneeIndex,
+                           WorkingDayCalendar workingDays, UserDataVersions versions, UserImportService userImport) {
         this.users = users;
+        this.requests = requests;
+        this.usage = usage;
         this.leaveDaysAdditionService = leaveDaysAdditionService;
+        this.assigneeIndex = assigneeIndex;
+        this.workingDays = workingDays;
+        this.versions = versions;
+        this.userImport = userImport;
     }
 
-    // # Return All Users
+    // # Return Users - keyset paginated, next page token in X-Next-Cursor, ?fields= projects
     @GetMapping("/users")
-    public List<UserExportDto> allUsers() {
-        return users.findAll()
-                .stream()
-                .map(UserExportDto::from)
-                .toList();
+    public ResponseEntity<List<UserExportDto>> allUsers(@RequestParam(required = false) String cursor,
+                                                        @RequestParam(defaultValue = "" + PageCursor.DEFAULT_PAGE_SIZE) int limit,
+                                                        @RequestParam(required = false) String fields) {
+        int size = PageCursor.clampPageSize(limit);
+        var after = PageCursor.decode(cursor);
+        var fieldSet = FieldSet.parse(fields, UserExportDto.FIELDS);
+
+        var rows = users.findPage(null, after == null ? null : after.lastId(), Limit.of(size + 1), fieldSet.documentFields());
+        return PageCursor.respond(rows, size, User::getId, u -> UserExportDto.from(u, fieldSet));
+    }
+
+    // # Bulk create / patch users by email - CSV (with header) or NDJSON, streamed from the body
+    @PostMapping(value = "/users/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public UserImportResultDto importUsers(HttpServletRequest request) throws IOException {
+        var contentType = MediaType.parseMediaType(request.getContentType());
+        var charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+        try (var body = new InputStreamReader(request.getInputStream(), charset)) {
+            return contentType.isCompatibleWith(MediaType.APPLICATION_NDJSON)
+                    ? userImport.importNdjson(body)
+                    : userImport.importCsv(body);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
     }
 
     // # Patch User
@@ -55,6 +107,8 @@ public class AdminController {
         if (body.workingSince() != null)      user.setWorkingSince(body.workingSince());
 
         var saved = users.save(user);
+        versions.bump(id);
+        assigneeIndex.put(saved);
         return ResponseEntity.ok(UserExportDto.from(saved));
     }
 
@@ -63,14 +117,59 @@ public class AdminController {
     public ResponseEntity<Void> delete(@PathVariable String id) {
         if (!users.existsById(id)) return ResponseEntity.notFound().build();
         users.deleteById(id);
+        versions.bump(id);
+        assigneeIndex.remove(id);
         return ResponseEntity.noContent().build();
     }
 
-    // TODO : Make It Check and execute on itself
+    // ! Idempotent per year - users already accrued this year are skipped
     // ! Force Yearly Contract Leave Days Addition in case of sleeping server 
     @PostMapping("/force-contract-leave-days-addition")
-    public ResponseEntity<Void> forceContractLeaveDaysAddition() {
-        leaveDaysAdditionService.addYearlyContractLeaveDays();
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<Map<String, Long>> forceContractLeaveDaysAddition() {
+        long processed = leaveDaysAdditionService.addYearlyContractLeaveDays();
+        return ResponseEntity.ok(Map.of("processedUsers", processed));
+    }
+
+    // ! Rebuilds every user's unread-decision counter from the requests (migration / drift repair)
+    @PostMapping("/recount-unread-decisions")
+    public ResponseEntity<Map<String, Integer>> recountUnreadDecisions() {
+        var counts = requests.countUnseenDecisionsByUser();
+        users.resetUnreadDecisions(counts);
+        versions.bumpAll();
+        return ResponseEntity.ok(Map.of("usersWithUnread", counts.size()));
+    }
+
+    // ! Regenerates the leave_usage rollups from the requests with one aggregation (migration / drift repair)
+    @PostMapping("/rebuild-usage-rollups")
+    public ResponseEntity<Map<String, Long>> rebuildUsageRollups() {
+        return ResponseEntity.ok(Map.of("rollups", usage.rebuild()));
+    }
+
+    // ! Rewrites stored workdaysCount after a holiday file change - balances are NOT adjusted, rollups need a rebuild
+    @PostMapping("/recompute-workdays")
+    public ResponseEntity<Map<String, Long>> recomputeWorkdays() {
+        long scanned = 0, updated = 0;
+        Map<String, Integer> changed = new HashMap<>();
+
+        try (var all = requests.streamAllByOrderByIdDesc()) {
+            for (var it = all.iterator(); it.hasNext(); ) {
+                var r = it.next();
+                scanned++;
+                if (r.getStartDate() == null || r.getEndDate() == null
+                        || !WorkingDayCalendar.covers(r.getStartDate(), r.getEndDate())) continue;
+
+                int workdays = workingDays.workdays(r.getStartDate(), r.getEndDate());
+                if (workdays != r.getWorkdaysCount()) changed.put(r.getId(), workdays);
+
+                if (changed.size() >= RECOMPUTE_CHUNK_SIZE) {
+                    updated += requests.updateWorkdaysCounts(changed);
+                    changed.clear();
+                }
+            }
+        }
+        updated += requests.updateWorkdaysCounts(changed);
+        if (updated > 0) versions.bumpAll();
+
+        return ResponseEntity.ok(Map.of("scannedRequests", scanned, "updatedRequests", updated));
     }
 }
@@ -1,8 +1,23 @@
 package com.digileave.digileave.Controllers;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,139 +25,244 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import jakarta.validation.Valid;
 
+import com.digileave.digileave.DTOs.BulkDecisionDto;
+import com.digileave.digileave.DTOs.BulkDecisionResultDto;
+import com.digileave.digileave.DTOs.CalendarDayDto;
+import com.digileave.digileave.DTOs.FieldSet;
+import com.digileave.digileave.DTOs.InboxDto;
+import com.digileave.digileave.DTOs.PageCursor;
 import com.digileave.digileave.DTOs.RequestExportDto;
 import com.digileave.digileave.DTOs.UserExportDto;
+import com.digileave.digileave.Models.Request;
 import com.digileave.digileave.Models.User;
-import com.digileave.digileave.Models.enums.Role;
+import com.digileave.digileave.Models.enums.LeaveType;
 import com.digileave.digileave.Models.enums.Status;
 import com.digileave.digileave.Repositories.RequestRepository;
+import com.digileave.digileave.Repositories.RequestRepositoryCustom.ExportFilter;
 import com.digileave.digileave.Repositories.UserRepository;
+import com.digileave.digileave.Services.AbsenceCalendar;
+import com.digileave.digileave.Services.AssigneeIndex;
+import com.digileave.digileave.Services.LeaveDecisionService;
+import com.digileave.digileave.Services.NdjsonStreamer;
+import com.digileave.digileave.Services.RequestExportService;
 
 @RestController
 @RequestMapping("/approver")
 @PreAuthorize("hasRole('APPROVER') or hasRole('ADMIN')")
 public class ApproverController {
 
+    private static final int MAX_CALENDAR_DAYS = 366;
+
     // # DB Operations
     private final UserRepository users;
     private final RequestRepository requests;
+    private final AssigneeIndex assigneeIndex;
+    private final LeaveDecisionService decisions;
+    private final NdjsonStreamer ndjson;
+    private final AbsenceCalendar calendar;
+    private final RequestExportService exports;
 
-    public ApproverController(UserRepository users, RequestRepository requests) {
+    public ApproverController(UserRepository users, RequestRepository requests, AssigneeIndex assigneeIndex,
+                              LeaveDecisionService decisions, NdjsonStreamer ndjson, AbsenceCalendar calendar,
+                              RequestExportService exports) {
         this.users = users;
         this.requests = requests;
+        this.assigneeIndex = assigneeIndex;
+        this.decisions = decisions;
+        this.ndjson = ndjson;
+        this.calendar = calendar;
+        this.exports = exports;
     }
 
-    private static boolean isAdmin(User u) {
-        return u != null && u.getRole() == Role.ADMIN;
-    }
-
+    // # Keyset paginated, next page token in X-Next-Cursor, ?fields= projects (pickers ask for id,fullName,email)
     @GetMapping("/assignees")
-    public List<UserExportDto> allAssignees(@AuthenticationPrincipal String approverId) {
-        var approver = users.findById(approverId)
-            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "approver not found"));
+    public ResponseEntity<List<UserExportDto>> allAssignees(@AuthenticationPrincipal String approverId,
+                                                            @RequestParam(required = false) String cursor,
+                                                            @RequestParam(defaultValue = "" + PageCursor.DEFAULT_PAGE_SIZE) int limit,
+                                                            @RequestParam(required = false) String fields) {
+        int size = PageCursor.clampPageSize(limit);
+        var after = PageCursor.decode(cursor);
+        var fieldSet = FieldSet.parse(fields, UserExportDto.FIELDS);
 
         // ADMIN sees everyone
-        if (isAdmin(approver)) {
-            return users.findAll().stream().map(UserExportDto::from).toList();
+        if (assigneeIndex.isAdmin(approverId)) {
+            var rows = users.findPage(null, after == null ? null : after.lastId(), Limit.of(size + 1), fieldSet.documentFields());
+            return PageCursor.respond(rows, size, User::getId, u -> UserExportDto.from(u, fieldSet));
         }
 
-        // APPROVER sees assignees
-        var ids = approver.getAssigneeIds();
-        if (ids == null || ids.isEmpty()) return List.of();
+        // APPROVER sees assignees - page over the id set, then load only that slice
+        var ids = assigneeIndex.assigneesOf(approverId);
+        if (ids.isEmpty()) return ResponseEntity.ok(List.of());
 
-        var assignees = users.findAllById(ids);
-        return java.util.stream.StreamSupport.stream(assignees.spliterator(), false)
-                .map(UserExportDto::from)
+        var pageIds = ids.stream()
+                .filter(id -> after == null || id.compareTo(after.lastId()) > 0)
+                .sorted()
+                .limit(size + 1L)
                 .toList();
+
+        boolean hasMore = pageIds.size() > size;
+        var slice = hasMore ? pageIds.subList(0, size) : pageIds;
+
+        var body = users.findPage(slice, null, Limit.of(size), fieldSet.documentFields()).stream()
+                .map(u -> UserExportDto.from(u, fieldSet))
+                .toList();
+
+        ResponseEntity.BodyBuilder res = ResponseEntity.ok();
+        if (hasMore) res.header(PageCursor.NEXT_CURSOR_HEADER, new PageCursor(slice.get(size - 1)).encode());
+        return res.body(body);
     }
 
+    // # Keyset paginated newest first, next page token in X-Next-Cursor, ?fields= projects
     @GetMapping("/requests")
-    public List<RequestExportDto> allRequests(@AuthenticationPrincipal String approverId) {
-        var approver = users.findById(approverId)
-            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "approver not found"));
+    public ResponseEntity<List<RequestExportDto>> allRequests(@AuthenticationPrincipal String approverId,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(defaultValue = "" + PageCursor.DEFAULT_PAGE_SIZE) int limit,
+                                                              @RequestParam(required = false) String fields) {
+        int size = PageCursor.clampPageSize(limit);
+        var after = PageCursor.decode(cursor);
+        var fieldSet = FieldSet.parse(fields, RequestExportDto.FIELDS);
+
+        // ADMIN sees everyone (null owner filter)
+        var ids = assigneeIndex.isAdmin(approverId) ? null : List.copyOf(assigneeIndex.assigneesOf(approverId));
+        if (ids != null && ids.isEmpty()) return ResponseEntity.ok(List.of());
 
-        if (isAdmin(approver)) {
-            return requests.findAll().stream().map(RequestExportDto::from).toList();
+        var rows = requests.findPage(ids, after == null ? null : after.lastId(), Limit.of(size + 1), fieldSet.documentFields());
+        return PageCursor.respond(rows, size, Request::getId, r -> RequestExportDto.from(r, fieldSet));
+    }
+
+    // # PENDING only, newest first - a page of rows plus the total, both served by user_status_created
+    @GetMapping("/inbox")
+    public InboxDto inbox(@AuthenticationPrincipal String approverId,
+                          @RequestParam(defaultValue = "" + PageCursor.DEFAULT_PAGE_SIZE) int limit) {
+        int size = PageCursor.clampPageSize(limit);
+        var ids = assigneeIndex.isAdmin(approverId) ? null : assigneeIndex.assigneesOf(approverId);
+        if (ids != null && ids.isEmpty()) return new InboxDto(0, List.of());
+
+        var items = requests.findPendingInbox(ids, size).stream().map(RequestExportDto::from).toList();
+        long total = items.size() < size ? items.size() : requests.countPendingInbox(ids);
+        return new InboxDto(total, items);
+    }
+
+    // # Full history streamed from a Mongo cursor as NDJSON, newest first
+    @GetMapping(value = "/requests/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamRequests(@AuthenticationPrincipal String approverId) {
+        if (assigneeIndex.isAdmin(approverId)) {
+            return ndjson.respond(requests::streamAllByOrderByIdDesc, RequestExportDto::from);
         }
+        var ids = assigneeIndex.assigneesOf(approverId);
+        if (ids.isEmpty()) return ndjson.respond(Stream::<Request>empty, RequestExportDto::from);
+        return ndjson.respond(() -> requests.streamByUserIdInOrderByIdDesc(ids), RequestExportDto::from);
+    }
 
-        var ids = approver.getAssigneeIds();
-        if (ids == null || ids.isEmpty()) return List.of();
+    // # Payroll export - CSV or XLSX written from a cursor ordered by startDate, joined to users per batch
+    @GetMapping("/requests/export")
+    public ResponseEntity<StreamingResponseBody> exportRequests(@AuthenticationPrincipal String approverId,
+                                                                @RequestParam(defaultValue = "csv") String format,
+                                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                                @RequestParam(required = false) List<LeaveType> type,
+                                                                @RequestParam(required = false) List<Status> status,
+                                                                @RequestParam(required = false) List<RequestExportService.Column> fields) {
+        RequestExportService.Format fmt = switch (format.toLowerCase()) {
+            case "csv" -> RequestExportService.Format.CSV;
+            case "xlsx" -> RequestExportService.Format.XLSX;
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "format must be csv or xlsx");
+        };
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "to must be on or after from");
+        }
 
-        return requests.findByUserIdIn(ids)
-                .stream()
-                .map(RequestExportDto::from)
-                .toList();
+        var ids = assigneeIndex.isAdmin(approverId) ? null : List.copyOf(assigneeIndex.assigneesOf(approverId));
+        var filter = new ExportFilter(ids, from, to, type, status);
+        var columns = fields == null || fields.isEmpty() ? List.of(RequestExportService.Column.values()) : fields;
+
+        StreamingResponseBody body = out -> exports.write(filter, columns, fmt, out);
+        var filename = "requests-export." + format.toLowerCase();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .contentType(fmt == RequestExportService.Format.XLSX
+                        ? MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
+                        : new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .body(body);
+    }
+
+    @GetMapping(value = "/assignee/{userId}/requests/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAssigneeRequests(@AuthenticationPrincipal String approverId,
+                                                                        @PathVariable String userId) {
+        if (!assigneeIndex.canManage(approverId, userId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "not your assignee");
+        }
+        return ndjson.respond(() -> requests.streamByUserIdOrderByIdDesc(userId), RequestExportDto::from);
     }
 
     @GetMapping("/assignee/{userId}/requests")
     public List<RequestExportDto> assigneeRequests(@AuthenticationPrincipal String approverId,
-                                                   @PathVariable String userId) {
-        var approver = users.findById(approverId)
-            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "approver not found"));
-
-        if (!isAdmin(approver)) {
-            var ids = approver.getAssigneeIds();
-            if (ids == null || !ids.contains(userId)) {
-                throw new ResponseStatusException(HttpStatus.FORBIDDEN, "not your assignee");
-            }
+                                                   @PathVariable String userId,
+                                                   @RequestParam(required = false) String fields) {
+        if (!assigneeIndex.canManage(approverId, userId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "not your assignee");
         }
+        var fieldSet = FieldSet.parse(fields, RequestExportDto.FIELDS);
 
-        return requests.findByUserId(userId)
+        return requests.findPage(List.of(userId), null, Limit.unlimited(), fieldSet.documentFields())
                 .stream()
-                .map(RequestExportDto::from)
+                .map(r -> RequestExportDto.from(r, fieldSet))
                 .toList();
     }
 
-    @PatchMapping("/request/{id}")
-    public RequestExportDto decide(@AuthenticationPrincipal String approverId,
-                                   @PathVariable String id,
-                                   @RequestBody java.util.Map<String, Status> body) {
-
-        var approver = users.findById(approverId)
-            .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
-                org.springframework.http.HttpStatus.NOT_FOUND, "approver not found"));
-
-        var r = requests.findById(id)
-            .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
-                org.springframework.http.HttpStatus.NOT_FOUND, "request not found"));
-
-        // ADMIN can decide any request; APPROVER must be assigned to the requester
-        if (!isAdmin(approver)) {
-            var ids = approver.getAssigneeIds();
-            if (ids == null || !ids.contains(r.getUserId())) {
-                throw new org.springframework.web.server.ResponseStatusException(
-                    org.springframework.http.HttpStatus.FORBIDDEN, "not your assignee");
-            }
+    // # Who is off on which day (APPROVED + PENDING), one entry per day in [from, to]
+    @GetMapping("/calendar")
+    public List<CalendarDayDto> calendar(@AuthenticationPrincipal String approverId,
+                                         @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                         @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) > MAX_CALENDAR_DAYS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "to must be on or after from and at most " + MAX_CALENDAR_DAYS + " days later");
         }
 
-        var newStatus = body.get("status");
-        if (newStatus == null || (newStatus != Status.APPROVED && newStatus != Status.REJECTED)) {
-            throw new org.springframework.web.server.ResponseStatusException(
-                org.springframework.http.HttpStatus.BAD_REQUEST, "status must be APPROVED or REJECTED");
+        Predicate<String> team;
+        if (assigneeIndex.isAdmin(approverId)) {
+            team = userId -> true;
+        } else {
+            var ids = assigneeIndex.assigneesOf(approverId);
+            team = ids::contains;
         }
+        var absences = calendar.between(from, to, team);
 
-        if (r.getStatus() != Status.PENDING) {
-            throw new org.springframework.web.server.ResponseStatusException(
-                org.springframework.http.HttpStatus.BAD_REQUEST, "request already decided");
-        }
+        // # One batched name lookup for everyone in range
+        var userIds = absences.values().stream().flatMap(List::stream).map(AbsenceCalendar.Absence::userId).distinct().toList();
+        Map<String, String> names = new HashMap<>();
+        users.findAllById(userIds).forEach(u -> names.put(u.getId(), u.getFullName()));
 
-        // Deduct days on APPROVED
-        if (newStatus == Status.APPROVED) {
-            var owner = users.findById(r.getUserId())
-                .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
-                    org.springframework.http.HttpStatus.NOT_FOUND, "request owner not found"));
-            owner.setAvailableLeaveDays(owner.getAvailableLeaveDays() - r.getWorkdaysCount());
-            users.save(owner);
+        List<CalendarDayDto> days = new ArrayList<>();
+        for (var day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            var absent = absences.getOrDefault(day, List.of()).stream()
+                .map(a -> new CalendarDayDto.Absentee(a.userId(), names.get(a.userId()), a.requestId(), a.status(), a.type()))
+                .toList();
+            days.add(new CalendarDayDto(day, absent.size(), absent));
         }
+        return days;
+    }
+
+    // # Up to BulkDecisionDto.MAX_IDS decisions in one call, one result per id
+    @PatchMapping("/requests/decision")
+    public List<BulkDecisionResultDto> decideAll(@AuthenticationPrincipal String approverId,
+                                                 @Valid @RequestBody BulkDecisionDto body) {
+        return decisions.decideAll(approverId, body.ids(), body.status());
+    }
 
-        r.setStatus(newStatus);
-        r.setDecision_Seen(false);
-        r.setDecidedByUserId(approverId);
-        r.setDecidedAt(java.time.Instant.now());
+    @PatchMapping("/request/{id}")
+    public RequestExportDto decide(@AuthenticationPrincipal String approverId,
+                                   @PathVariable String id,
+                                   @RequestBody java.util.Map<String, Status> body) {
 
-        return RequestExportDto.from(requests.save(r));
+        return RequestExportDto.from(decisions.decide(approverId, id, body.get("status")));
     }
 }
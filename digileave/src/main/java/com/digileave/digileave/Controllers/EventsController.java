@@ -0,0 +1,31 @@
+package com.digileave.digileave.Controllers;
+
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.digileave.digileave.Services.LeaveEventBus;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+@RestController
+@RequestMapping("/events")
+public class EventsController {
+
+    private final LeaveEventBus events;
+    public EventsController(LeaveEventBus events) {
+        this.events = events;
+    }
+
+    // # Server-Sent Events: CREATED / DECISION / CANCELLATION / BALANCE for me and my assignees
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(@AuthenticationPrincipal String userId, HttpServletResponse response) {
+        response.setHeader("Cache-Control", "no-cache");
+        // ! Stops reverse proxies (nginx, Render) from buffering the stream
+        response.setHeader("X-Accel-Buffering", "no");
+        return events.subscribe(userId);
+    }
+}
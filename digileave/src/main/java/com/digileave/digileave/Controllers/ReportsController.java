@@ -0,0 +1,131 @@
+package com.digileave.digileave.Controllers;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.digileave.digileave.DTOs.UsageReportDto;
+import com.digileave.digileave.Models.enums.LeaveType;
+import com.digileave.digileave.Repositories.LeaveUsageRepository;
+import com.digileave.digileave.Repositories.LeaveUsageRepositoryCustom.Dimension;
+import com.digileave.digileave.Repositories.LeaveUsageRepositoryCustom.UsageRow;
+import com.digileave.digileave.Repositories.UserRepository;
+import com.digileave.digileave.Services.AssigneeIndex;
+
+@RestController
+@RequestMapping("/reports")
+@PreAuthorize("hasRole('APPROVER') or hasRole('ADMIN')")
+public class ReportsController {
+
+    private static final Set<String> GROUP_BY = Set.of("user", "month", "type", "approver");
+
+    // # DB Operations
+    private final LeaveUsageRepository usage;
+    private final UserRepository users;
+    private final AssigneeIndex assigneeIndex;
+
+    public ReportsController(LeaveUsageRepository usage, UserRepository users, AssigneeIndex assigneeIndex) {
+        this.usage = usage;
+        this.users = users;
+        this.assigneeIndex = assigneeIndex;
+    }
+
+    // # Used days / outcomes per user, month, type or approver - reads rollups only, never the requests
+    @GetMapping("/usage")
+    public UsageReportDto usage(@AuthenticationPrincipal String callerId,
+                                @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+                                @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth to,
+                                @RequestParam(defaultValue = "user,type") List<String> groupBy,
+                                @RequestParam(required = false) List<LeaveType> type,
+                                @RequestParam(required = false) String userId) {
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "to must be on or after from");
+        }
+        var groups = groupBy.stream().map(String::toLowerCase).distinct().toList();
+        if (!GROUP_BY.containsAll(groups)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "groupBy must be a subset of " + GROUP_BY);
+        }
+        boolean byApprover = groups.contains("approver");
+
+        // ADMIN sees everyone; APPROVER only own assignees
+        boolean admin = assigneeIndex.isAdmin(callerId);
+        Set<String> scope = admin ? null : assigneeIndex.assigneesOf(callerId);
+        if (userId != null) {
+            if (scope != null && !scope.contains(userId)) {
+                throw new ResponseStatusException(HttpStatus.FORBIDDEN, "not your assignee");
+            }
+            scope = Set.of(userId);
+        }
+
+        // Approver totals are per-user totals folded through the assignee index
+        var dimensions = EnumSet.noneOf(Dimension.class);
+        if (byApprover || groups.contains("user")) dimensions.add(Dimension.USER);
+        if (groups.contains("month")) dimensions.add(Dimension.MONTH);
+        if (groups.contains("type")) dimensions.add(Dimension.TYPE);
+
+        List<UsageRow> totals = (scope != null && scope.isEmpty()) ? List.of() : usage.summarize(scope,
+                from == null ? null : from.toString(), to == null ? null : to.toString(), type, dimensions);
+
+        List<UsageReportDto.Row> rows = byApprover
+                ? byApprover(totals, groups.contains("user"), admin ? null : callerId)
+                : totals.stream().map(t -> row(null, t)).toList();
+
+        // # One batched name lookup when rows are per user
+        if (groups.contains("user")) {
+            var ids = rows.stream().map(UsageReportDto.Row::userId).distinct().toList();
+            Map<String, String> names = new HashMap<>();
+            users.findAllById(ids).forEach(u -> names.put(u.getId(), u.getFullName()));
+            rows = rows.stream().map(r -> new UsageReportDto.Row(r.approverId(), r.userId(), names.get(r.userId()),
+                    r.month(), r.type(), r.usedDays(), r.approved(), r.rejected(), r.cancelled())).toList();
+        }
+
+        var sorted = new ArrayList<>(rows);
+        sorted.sort(Comparator.comparing(UsageReportDto.Row::approverId, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(UsageReportDto.Row::userId, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(UsageReportDto.Row::month, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(UsageReportDto.Row::type, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return new UsageReportDto(from, to, groups, sorted);
+    }
+
+    // ! A user with several approvers counts under each of them; users without one land under null
+    private List<UsageReportDto.Row> byApprover(List<UsageRow> perUser, boolean keepUser, String onlyApprover) {
+        // Keyed by a zero-count row holding only the grouped dimensions
+        Map<UsageReportDto.Row, long[]> folded = new HashMap<>();
+        for (var t : perUser) {
+            Set<String> approvers = onlyApprover != null ? Set.of(onlyApprover) : assigneeIndex.approversOf(t.userId());
+            for (String approver : approvers.isEmpty() ? Collections.<String>singleton(null) : approvers) {
+                var key = new UsageReportDto.Row(approver, keepUser ? t.userId() : null, null, t.month(), t.type(), 0, 0, 0, 0);
+                var sum = folded.computeIfAbsent(key, k -> new long[4]);
+                sum[0] += t.usedDays();
+                sum[1] += t.approved();
+                sum[2] += t.rejected();
+                sum[3] += t.cancelled();
+            }
+        }
+        List<UsageReportDto.Row> rows = new ArrayList<>(folded.size());
+        folded.forEach((k, s) -> rows.add(new UsageReportDto.Row(k.approverId(), k.userId(), null, k.month(), k.type(),
+                s[0], s[1], s[2], s[3])));
+        return rows;
+    }
+
+    private static UsageReportDto.Row row(String approverId, UsageRow t) {
+        return new UsageReportDto.Row(approverId, t.userId(), null, t.month(), t.type(),
+                t.usedDays(), t.approved(), t.rejected(), t.cancelled());
+    }
+}
@@ -3,24 +3,43 @@ package com.digileave.digileave.Controllers;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 
+import com.digileave.digileave.DTOs.FieldSet;
+import com.digileave.digileave.DTOs.LeaveEventDto;
 import com.digileave.digileave.DTOs.RequestCreateDto;
 import com.digileave.digileave.DTOs.RequestExportDto;
 import com.digileave.digileave.Models.Request;
 import com.digileave.digileave.Models.enums.Status;
+import com.digileave.digileave.Repositories.LeaveUsageRepository;
+import com.digileave.digileave.Repositories.LeaveUsageRepositoryCustom.Increment;
 import com.digileave.digileave.Repositories.RequestRepository;
+import com.digileave.digileave.Repositories.UserRepository;
+import com.digileave.digileave.Services.AbsenceCalendar;
+import com.digileave.digileave.Services.NdjsonStreamer;
+import com.digileave.digileave.Services.LeaveEventBus;
+import com.digileave.digileave.Services.LeaveRequestService;
+import com.digileave.digileave.Services.UserDataVersions;
 
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/requests")
@@ -28,23 +47,58 @@ public class RequestController {
 
     // # DB Operations
     private final RequestRepository requests;
-    public RequestController(RequestRepository requests) {
+    private final UserRepository users;
+    private final NdjsonStreamer ndjson;
+    private final AbsenceCalendar calendar;
+    private final LeaveRequestService leaveRequests;
+    private final UserDataVersions versions;
+    private final LeaveEventBus events;
+    private final LeaveUsageRepository usage;
+    public RequestController(RequestRepository requests, UserRepository users, NdjsonStreamer ndjson, AbsenceCalendar calendar,
+                             LeaveRequestService leaveRequests, UserDataVersions versions, LeaveEventBus events,
+                             LeaveUsageRepository usage) {
         this.requests = requests;
+        this.users = users;
+        this.ndjson = ndjson;
+        this.calendar = calendar;
+        this.leaveRequests = leaveRequests;
+        this.versions = versions;
+        this.events = events;
+        this.usage = usage;
     }
 
-    // # Get All User Requests
+    // # Get All User Requests - 304 on a matching If-None-Match, without a DB read; ?fields= projects
     @GetMapping
-    public List<RequestExportDto> getRequests(Authentication authentication){
+    public ResponseEntity<List<RequestExportDto>> getRequests(Authentication authentication, WebRequest webRequest,
+                                                              @RequestParam(required = false) String fields){
         String userId = null;
         if (authentication != null && authentication.getDetails() instanceof String) {
             userId = (String) authentication.getPrincipal();
         }
-        return requests.findByUserId(userId)
+        // No email claim in the token - nothing can be theirs
+        if (userId == null) return ResponseEntity.ok(List.of());
+        var fieldSet = FieldSet.parse(fields, RequestExportDto.FIELDS);
+        String etag = fieldSet.etag(versions.etagOf(userId));
+        if (webRequest.checkNotModified(etag)) return null;
+
+        var body = requests.findPage(List.of(userId), null, Limit.unlimited(), fieldSet.documentFields())
                    .stream()
-                   .map(RequestExportDto::from)
+                   .map(r -> RequestExportDto.from(r, fieldSet))
                    .toList();
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache().cachePrivate()).body(body);
     }
 
+    // # Same listing streamed from a Mongo cursor as NDJSON, newest first
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamRequests(Authentication authentication){
+        String userId = null;
+        if (authentication != null && authentication.getDetails() instanceof String) {
+            userId = (String) authentication.getPrincipal();
+        }
+        final String owner = userId;
+        if (owner == null) return ndjson.respond(Stream::<Request>empty, RequestExportDto::from);
+        return ndjson.respond(() -> requests.streamByUserIdOrderByIdDesc(owner), RequestExportDto::from);
+    }
 
     // # Create Request
     @PostMapping
@@ -53,50 +107,62 @@ public class RequestController {
         if (authentication != null && authentication.getDetails() instanceof String) {
             userId = (String) authentication.getPrincipal();
         }
-        var request = new Request();
-        request.setUserId(userId);
-        request.setStartDate(body.startDate());
-        request.setEndDate(body.endDate());
-        request.setWorkdaysCount(body.workdaysCount());
-        request.setType(body.type());
-        request.setComment(body.comment());
-
-        return requests.save(request);
+        return leaveRequests.create(userId, body);
     }
 
     @PatchMapping("/{id}/cancel")
     public RequestExportDto cancelOwnRequest(@AuthenticationPrincipal String userId, @PathVariable("id") String requestId) {
-        var req = requests.findById(requestId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Request not found"));
-
-        if (!req.getUserId().equals(userId)) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You can cancel only your own requests");
-        }
-        if (req.getStatus() == Status.CANCELLED) {
-            throw new ResponseStatusException(HttpStatus.CONFLICT, "Only PENDING requests can be cancelled");
-        }
-        if (req.getStatus() != Status.PENDING) {
-            throw new ResponseStatusException(HttpStatus.CONFLICT, "Only PENDING requests can be cancelled");
-        }
-
-        req.setStatus(Status.CANCELLED);
-        req.setDecidedAt(java.time.Instant.now());
-        var saved = requests.save(req);
+        // # One conditional update - a concurrent approval can't be overwritten with CANCELLED
+        var saved = requests.cancelIfPending(requestId, userId, java.time.Instant.now()).orElseThrow(() -> {
+            var req = requests.findById(requestId).orElse(null);
+            if (req == null) {
+                return new ResponseStatusException(HttpStatus.NOT_FOUND, "Request not found");
+            }
+            if (!req.getUserId().equals(userId)) {
+                return new ResponseStatusException(HttpStatus.FORBIDDEN, "You can cancel only your own requests");
+            }
+            return new ResponseStatusException(HttpStatus.CONFLICT, "Only PENDING requests can be cancelled");
+        });
+        if (saved.getStartDate() != null) usage.increment(List.of(Increment.of(saved, Status.CANCELLED)));
+        versions.bump(userId);
+        calendar.onChanged(saved);
+        events.publish(LeaveEventDto.Type.CANCELLATION, saved);
         return RequestExportDto.from(saved); // ! PATCH DTO NOT WORKING
     }
     
 
+    // # Unread badge - one projected read of the user's counter
+    @GetMapping("/unread-decisions")
+    public Map<String, Integer> unreadDecisions(@AuthenticationPrincipal String userId) {
+        return Map.of("unreadDecisions", users.unreadDecisionsOf(userId));
+    }
+
     @PatchMapping("/{id}/decision-seen")
     public RequestExportDto seeDecision(@AuthenticationPrincipal String userId, @PathVariable("id") String requestId) {
-        var req = requests.findById(requestId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Request not found"));
-
-        if (!req.getUserId().equals(userId)) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You can see the decision only on your own requests");
+        var req = requests.markDecisionSeen(requestId, userId).orElseThrow(() -> {
+            if (!requests.existsById(requestId)) {
+                return new ResponseStatusException(HttpStatus.NOT_FOUND, "Request not found");
+            }
+            return new ResponseStatusException(HttpStatus.FORBIDDEN, "You can see the decision only on your own requests");
+        });
+
+        // Only a real false -> true flip moves the counter
+        if (Boolean.FALSE.equals(req.getDecision_Seen())) {
+            users.incrementUnreadDecisions(userId, -1);
+            versions.bump(userId);
         }
-
         req.setDecision_Seen(true);
-        var saved = requests.save(req);
-        return RequestExportDto.from(saved); // ! PATCH DTO NOT WORKING
+        return RequestExportDto.from(req);
+    }
+
+    // # Mark all decisions seen - one updateMany, counter moves by what was actually flipped
+    @PatchMapping("/decision-seen")
+    public Map<String, Long> seeAllDecisions(@AuthenticationPrincipal String userId) {
+        long flipped = requests.markAllDecisionsSeen(userId);
+        if (flipped > 0) {
+            users.incrementUnreadDecisions(userId, (int) -flipped);
+            versions.bump(userId);
+        }
+        return Map.of("updated", flipped);
     }
 }
@@ -1,12 +1,16 @@
 package com.digileave.digileave.Controllers;
 
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
 import com.digileave.digileave.DTOs.UserExportDto;
 import com.digileave.digileave.Repositories.UserRepository;
+import com.digileave.digileave.Services.UserDataVersions;
 
 
 @RestController
@@ -15,17 +19,22 @@ public class UserController {
 
     // # DB operations
     private final UserRepository db;
-    public UserController(UserRepository db) {
+    private final UserDataVersions versions;
+    public UserController(UserRepository db, UserDataVersions versions) {
         this.db = db;
+        this.versions = versions;
     }
     
-    // # Return The User
+    // # Return The User - 304 on a matching If-None-Match, without a DB read
     @GetMapping
-    public UserExportDto userInfo(@AuthenticationPrincipal String userId) {
+    public ResponseEntity<UserExportDto> userInfo(@AuthenticationPrincipal String userId, WebRequest webRequest) {
+        String etag = versions.etagOf(userId);
+        if (webRequest.checkNotModified(etag)) return null;
 
-        return db.findById(userId)
+        var user = db.findById(userId)
          .map(UserExportDto::from)
          .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache().cachePrivate()).body(user);
     }
     
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.digileave.digileave.DTOs;
+
+import java.util.List;
+
+import com.digileave.digileave.Models.enums.Status;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+public record BulkDecisionDto(
+
+    @NotEmpty
+    @Size(max = BulkDecisionDto.MAX_IDS)
+    List<String> ids,
+
+    @NotNull
+    Status status
+
+) {
+    public static final int MAX_IDS = 200;
+}
@@ -0,0 +1,10 @@
+package com.digileave.digileave.DTOs;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// # One entry per requested id - request is present only when DECIDED
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BulkDecisionResultDto(String id, Outcome outcome, RequestExportDto request) {
+
+    public enum Outcome { DECIDED, NOT_FOUND, FORBIDDEN, ALREADY_DECIDED }
+}
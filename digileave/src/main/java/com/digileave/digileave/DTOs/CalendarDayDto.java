@@ -0,0 +1,21 @@
+package com.digileave.digileave.DTOs;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.digileave.digileave.Models.enums.LeaveType;
+import com.digileave.digileave.Models.enums.Status;
+
+public record CalendarDayDto(
+    LocalDate date,
+    int count,
+    List<Absentee> absent
+) {
+    public record Absentee(
+        String userId,
+        String fullName,
+        String requestId,
+        Status status,
+        LeaveType type
+    ) {}
+}
@@ -0,0 +1,72 @@
+package com.digileave.digileave.DTOs;
+
+import java.lang.reflect.RecordComponent;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Sparse fieldset from {@code ?fields=a,b,c}, checked against the components of a DTO record.
+ * The same set drives the Mongo projection (only those fields are read and decoded) and the
+ * DTO mapping (everything else stays null and is left out by {@code NON_NULL}).
+ * {@code id} is always included - keyset cursors and clients key on it.
+ */
+public final class FieldSet {
+
+    public static final FieldSet ALL = new FieldSet(null);
+
+    // Sorted, so equal sets give the same ETag suffix whatever order they were asked in
+    private final TreeSet<String> names;
+
+    private FieldSet(TreeSet<String> names) {
+        this.names = names;
+    }
+
+    // # Null / blank parameter means every field
+    public static FieldSet parse(String param, Set<String> allowed) {
+        if (param == null || param.isBlank()) return ALL;
+        var names = Arrays.stream(param.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .collect(Collectors.toCollection(TreeSet::new));
+        for (String name : names) {
+            if (!allowed.contains(name)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "unknown field '" + name + "', expected any of " + allowed);
+            }
+        }
+        names.add("id");
+        return names.size() == allowed.size() ? ALL : new FieldSet(names);
+    }
+
+    // # Component names of a DTO record - what ?fields= may ask for
+    public static Set<String> namesOf(Class<? extends Record> dto) {
+        return Arrays.stream(dto.getRecordComponents())
+                .map(RecordComponent::getName)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    public boolean isAll() {
+        return names == null;
+    }
+
+    public boolean has(String name) {
+        return names == null || names.contains(name);
+    }
+
+    // # Document fields to project - null means no projection; _id comes back anyway
+    public Collection<String> documentFields() {
+        if (names == null) return null;
+        return names.stream().filter(n -> !n.equals("id")).toList();
+    }
+
+    // # A sparse body is a different representation - it must not share the full body's ETag
+    public String etag(String etag) {
+        if (names == null) return etag;
+        return etag.substring(0, etag.length() - 1) + ";" + String.join(",", names) + "\"";
+    }
+}
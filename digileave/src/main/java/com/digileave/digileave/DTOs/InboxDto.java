@@ -0,0 +1,7 @@
+package com.digileave.digileave.DTOs;
+
+import java.util.List;
+
+// # Approver inbox - newest PENDING requests plus how many are pending in total
+public record InboxDto(long total, List<RequestExportDto> items) {
+}
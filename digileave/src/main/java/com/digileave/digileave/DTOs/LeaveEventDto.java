@@ -0,0 +1,18 @@
+package com.digileave.digileave.DTOs;
+
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// # Pushed over /events - request is the post-change state, leaveDaysDelta only on BALANCE
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record LeaveEventDto(
+    long id,
+    Type type,
+    String userId,
+    RequestExportDto request,
+    Integer leaveDaysDelta,
+    Instant at
+) {
+    public enum Type { CREATED, DECISION, CANCELLATION, BALANCE }
+}
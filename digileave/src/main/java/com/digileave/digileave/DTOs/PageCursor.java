@@ -0,0 +1,51 @@
+package com.digileave.digileave.DTOs;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+// # Opaque keyset cursor - wraps the last returned document id
+public record PageCursor(String lastId) {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(lastId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // # Null / blank token means "first page"
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) return null;
+        try {
+            String id = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (id.isBlank()) throw new IllegalArgumentException();
+            return new PageCursor(id);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid cursor");
+        }
+    }
+
+    public static int clampPageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    // # Rows are fetched with limit + 1 - the extra row only signals a next page
+    public static <T, R> ResponseEntity<List<R>> respond(List<T> rows, int limit,
+                                                          Function<T, String> idOf, Function<T, R> mapper) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        List<T> page = rows;
+        if (rows.size() > limit) {
+            page = rows.subList(0, limit);
+            builder.header(NEXT_CURSOR_HEADER, new PageCursor(idOf.apply(page.get(limit - 1))).encode());
+        }
+        return builder.body(page.stream().map(mapper).toList());
+    }
+}
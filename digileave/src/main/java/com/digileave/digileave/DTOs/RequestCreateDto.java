@@ -10,13 +10,15 @@ import jakarta.validation.constraints.Size;
 
 public record RequestCreateDto(
 
+    @NotNull
     @JsonFormat(pattern = "yyyy-MM-dd")
     LocalDate startDate,
 
+    @NotNull
     @JsonFormat(pattern = "yyyy-MM-dd")
     LocalDate endDate,
     
-    @NotNull
+    // ! Ignored - the server computes workdays from startDate / endDate
     Integer workdaysCount,
 
     @NotNull
@@ -2,6 +2,7 @@ package com.digileave.digileave.DTOs;
 
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Set;
 
 import com.digileave.digileave.Models.enums.Status;
 import com.digileave.digileave.Models.Request;
@@ -23,22 +24,28 @@ public record RequestExportDto(
     Instant decidedAt,
     Instant createdAt
 ) {
+    public static final Set<String> FIELDS = FieldSet.namesOf(RequestExportDto.class);
+
     public static RequestExportDto from(Request request){
+        return from(request, FieldSet.ALL);
+    }
+
+    // # Fields outside the set stay null (and are omitted) - the entity may carry defaults for them
+    public static RequestExportDto from(Request request, FieldSet fields){
         return new RequestExportDto(
             request.getId(),
-            request.getUserId(),
-            request.getStartDate(),
-            request.getEndDate(),
-            request.getWorkdaysCount(),
-            request.getStatus(),
-            request.getType(),
-            request.getComment(),
-            request.getDecision_Seen(),
-            request.getDecidedByUserId(),
-            request.getDecidedAt(),
-            request.getCreatedAt()
-
+            fields.has("userId") ? request.getUserId() : null,
+            fields.has("startDate") ? request.getStartDate() : null,
+            fields.has("endDate") ? request.getEndDate() : null,
+            fields.has("workdaysCount") ? request.getWorkdaysCount() : null,
+            fields.has("status") ? request.getStatus() : null,
+            fields.has("type") ? request.getType() : null,
+            fields.has("comment") ? request.getComment() : null,
+            fields.has("decision_seen") ? request.getDecision_Seen() : null,
+            fields.has("decidedByUserId") ? request.getDecidedByUserId() : null,
+            fields.has("decidedAt") ? request.getDecidedAt() : null,
+            fields.has("createdAt") ? request.getCreatedAt() : null
         );
     }
     
-}
\ No newline at end of file
+}
@@ -0,0 +1,26 @@
+package com.digileave.digileave.DTOs;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import com.digileave.digileave.Models.enums.LeaveType;
+
+// # Leave usage totals from the leave_usage rollups - dimensions not grouped by are null
+public record UsageReportDto(
+    YearMonth from,
+    YearMonth to,
+    List<String> groupBy,
+    List<Row> rows
+) {
+    public record Row(
+        String approverId,
+        String userId,
+        String fullName,
+        String month,
+        LeaveType type,
+        long usedDays,
+        long approved,
+        long rejected,
+        long cancelled
+    ) {}
+}
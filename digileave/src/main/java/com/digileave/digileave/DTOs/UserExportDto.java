@@ -2,10 +2,13 @@ package com.digileave.digileave.DTOs;
 
 import com.digileave.digileave.Models.User;
 import com.digileave.digileave.Models.enums.Role;
+import com.fasterxml.jackson.annotation.JsonInclude;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
 
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public record UserExportDto(
         String id,
         String email,
@@ -14,18 +17,27 @@ public record UserExportDto(
         Integer availableLeaveDays,
         Integer contractLeaveDays,
         LocalDate workingSince,
-        List<String> assigneeIds
+        List<String> assigneeIds,
+        Integer unreadDecisions
 ) {
+    public static final Set<String> FIELDS = FieldSet.namesOf(UserExportDto.class);
+
     public static UserExportDto from(User user) {
+        return from(user, FieldSet.ALL);
+    }
+
+    // # Fields outside the set stay null (and are omitted) - the entity may carry defaults for them
+    public static UserExportDto from(User user, FieldSet fields) {
         return new UserExportDto(
                 user.getId(),
-                user.getEmail(),
-                user.getFullName(),
-                user.getRole(),
-                user.getAvailableLeaveDays(),
-                user.getContractLeaveDays(),
-                user.getWorkingSince(),
-                user.getAssigneeIds()
+                fields.has("email") ? user.getEmail() : null,
+                fields.has("fullName") ? user.getFullName() : null,
+                fields.has("role") ? user.getRole() : null,
+                fields.has("availableLeaveDays") ? user.getAvailableLeaveDays() : null,
+                fields.has("contractLeaveDays") ? user.getContractLeaveDays() : null,
+                fields.has("workingSince") ? user.getWorkingSince() : null,
+                fields.has("assigneeIds") ? user.getAssigneeIds() : null,
+                fields.has("unreadDecisions") ? user.getUnreadDecisions() : null
         );
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,14 @@
+package com.digileave.digileave.DTOs;
+
+import java.util.List;
+
+// # Bulk import summary - errors are capped, failed is the full count
+public record UserImportResultDto(
+    long rows,
+    long created,
+    long updated,
+    long failed,
+    List<RowError> errors
+) {
+    public record RowError(long line, String message) {}
+}
@@ -5,6 +5,8 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
+// ! Runs as a single instance. AssigneeIndex, AbsenceCalendar, UserDataVersions, LeaveEventBus, the
+// ! per-user request locks and admission limits are all in-process state that other instances wouldn't see
 @SpringBootApplication
 @EnableScheduling
 public class DigileaveApplication {
@@ -20,7 +22,8 @@ public class DigileaveApplication {
     String cs    = dotenv.get("CLIENT_SECRET");
     String jwt    = dotenv.get("JWT_SECRET_BASE64");
 
-    if (mongo == null) {
+    // ! The inmemory profile runs without MongoDB
+    if (mongo == null && !isInMemoryProfile(args)) {
       throw new IllegalStateException("Missing MONGO_URI in environment or .env");
     }
     if (cid == null) {
@@ -30,14 +33,25 @@ public class DigileaveApplication {
       throw new IllegalStateException("Missing CLIENT_SECRET in environment or .env");
     }
 
-    System.setProperty("MONGO_URI", mongo);
-    System.setProperty("PORT", port);
-    System.setProperty("CLIENT_ID", cid);
-    System.setProperty("CLIENT_SECRET", cs);
-    System.setProperty("JWT_SECRET_BASE64", jwt);
+    setIfPresent("MONGO_URI", mongo);
+    setIfPresent("PORT", port);
+    setIfPresent("CLIENT_ID", cid);
+    setIfPresent("CLIENT_SECRET", cs);
+    setIfPresent("JWT_SECRET_BASE64", jwt);
 
 
     SpringApplication.run(DigileaveApplication.class, args);
   }
-}
 
+  private static void setIfPresent(String key, String value) {
+    if (value != null) System.setProperty(key, value);
+  }
+
+  private static boolean isInMemoryProfile(String[] args) {
+    String profiles = System.getProperty("spring.profiles.active", System.getenv("SPRING_PROFILES_ACTIVE"));
+    for (String arg : args) {
+      if (arg.startsWith("--spring.profiles.active=")) profiles = arg.substring("--spring.profiles.active=".length());
+    }
+    return profiles != null && java.util.Arrays.asList(profiles.split("\\s*,\\s*")).contains("inmemory");
+  }
+}
@@ -0,0 +1,59 @@
+package com.digileave.digileave.Models;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import com.digileave.digileave.Models.enums.LeaveType;
+
+
+// # Decided leave per (user, month of startDate, type) - kept current with $inc on every decision
+@Document(collection = "leave_usage")
+// Reports: range on month, then the user filter
+@CompoundIndex(name = "month_user", def = "{'month': 1, 'userId': 1}")
+public class LeaveUsage {
+
+    // "userId|yyyy-MM|TYPE" - deterministic, so incremental upserts and the rebuild hit the same document
+    @Id
+    private String id;
+
+    private String userId;
+    private String month;
+    private LeaveType type;
+
+    // Workdays of APPROVED requests, and how many requests ended in each outcome
+    private int usedDays;
+    private int approved;
+    private int rejected;
+    private int cancelled;
+
+
+    public static String key(String userId, String month, LeaveType type) {
+        return userId + "|" + month + "|" + type;
+    }
+
+    // # Getters & Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    public String getMonth() { return month; }
+    public void setMonth(String month) { this.month = month; }
+
+    public LeaveType getType() { return type; }
+    public void setType(LeaveType type) { this.type = type; }
+
+    public int getUsedDays() { return usedDays; }
+    public void setUsedDays(int usedDays) { this.usedDays = usedDays; }
+
+    public int getApproved() { return approved; }
+    public void setApproved(int approved) { this.approved = approved; }
+
+    public int getRejected() { return rejected; }
+    public void setRejected(int rejected) { this.rejected = rejected; }
+
+    public int getCancelled() { return cancelled; }
+    public void setCancelled(int cancelled) { this.cancelled = cancelled; }
+}
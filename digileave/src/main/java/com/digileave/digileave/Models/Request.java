@@ -1,6 +1,7 @@
 package com.digileave.digileave.Models;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -11,6 +12,14 @@ import com.digileave.digileave.Models.enums.*;
 
 
 @Document(collection = "requests")
+// Overlap check: equality on userId, $in on status, range on the dates
+@CompoundIndex(name = "user_status_range", def = "{'userId': 1, 'status': 1, 'startDate': 1, 'endDate': 1}")
+// Exports: ordered walk by start date without a blocking sort
+@CompoundIndex(name = "start_id", def = "{'startDate': 1, '_id': 1}")
+// Approver inbox: equality on userId + status, newest first
+@CompoundIndex(name = "user_status_created", def = "{'userId': 1, 'status': 1, 'createdAt': -1}")
+// Admin inbox (no userId filter): equality on status, newest first
+@CompoundIndex(name = "status_created", def = "{'status': 1, 'createdAt': -1}")
 public class Request {
 
     @Id
@@ -36,6 +45,8 @@ public class Request {
     // Audit
     private String decidedByUserId;
     private Instant decidedAt;
+    // Set by a bulk decision - the one updateMany that moved this request, see decideAllIfPending
+    private String decisionBatch;
     private Instant createdAt = Instant.now();
 
     
@@ -74,6 +85,9 @@ public class Request {
     public Instant getDecidedAt() { return decidedAt; }
     public void setDecidedAt(Instant decidedAt) { this.decidedAt = decidedAt; }
     
+    public String getDecisionBatch() { return decisionBatch; }
+    public void setDecisionBatch(String decisionBatch) { this.decisionBatch = decisionBatch; }
+    
     public Instant getCreatedAt() { return createdAt; }
     public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
     
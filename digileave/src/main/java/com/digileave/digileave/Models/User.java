@@ -28,9 +28,19 @@ public class User {
     private int availableLeaveDays = 20;
     private int contractLeaveDays;
     private LocalDate workingSince;
+
+    // Derived from workingSince ("MM-dd") so the nightly anniversary job can query instead of scan
+    @Indexed
+    private String anniversaryMonthDay;
     
     private List<String> assigneeIds = new ArrayList<>();
 
+    // Year of the last yearly contract accrual - makes the Jan 1st job idempotent / resumable
+    private Integer lastContractAccrualYear;
+
+    // Decisions on this user's requests not yet seen - kept in step with Request.decision_seen
+    private int unreadDecisions;
+
 
     
     // # Getters & Setters
@@ -53,12 +63,28 @@ public class User {
     public void setContractLeaveDays(int contractLeaveDays){ this.contractLeaveDays = contractLeaveDays; }
 
     public LocalDate getWorkingSince(){ return workingSince; }
-    public void setWorkingSince(LocalDate workingSince){ this.workingSince = workingSince; }
+    public void setWorkingSince(LocalDate workingSince){
+        this.workingSince = workingSince;
+        this.anniversaryMonthDay = anniversaryKey(workingSince);
+    }
+
+    public String getAnniversaryMonthDay(){ return anniversaryMonthDay; }
+
+    // # "MM-dd" key - Feb 29 stays "02-29", folding onto Feb 28 happens at query time
+    public static String anniversaryKey(LocalDate date){
+        return date == null ? null : String.format("%02d-%02d", date.getMonthValue(), date.getDayOfMonth());
+    }
 
     public List<String> getAssigneeIds(){ return assigneeIds; }
     public void setAssigneeIds(List<String> assigneeIds){ this.assigneeIds = assigneeIds;}
     public void addAssignee(String assignee){ this.assigneeIds.add(assignee); }
     public void deleteAssignee(String assignee){ this.assigneeIds.remove(assignee); }
 
+    public Integer getLastContractAccrualYear(){ return lastContractAccrualYear; }
+    public void setLastContractAccrualYear(Integer lastContractAccrualYear){ this.lastContractAccrualYear = lastContractAccrualYear; }
+
+    public int getUnreadDecisions(){ return unreadDecisions; }
+    public void setUnreadDecisions(int unreadDecisions){ this.unreadDecisions = unreadDecisions; }
+
 
 }
\ No newline at end of file
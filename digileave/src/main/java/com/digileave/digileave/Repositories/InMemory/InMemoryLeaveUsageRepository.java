@@ -0,0 +1,117 @@
+package com.digileave.digileave.Repositories.InMemory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import com.digileave.digileave.Models.LeaveUsage;
+import com.digileave.digileave.Models.enums.LeaveType;
+import com.digileave.digileave.Models.enums.Status;
+import com.digileave.digileave.Repositories.LeaveUsageRepository;
+import com.digileave.digileave.Repositories.RequestRepository;
+
+// # LeaveUsageRepository without MongoDB - upserts are a compute on the rollup key
+@Repository
+@Profile("inmemory")
+public class InMemoryLeaveUsageRepository extends InMemoryMongoRepository<LeaveUsage> implements LeaveUsageRepository {
+
+    private final RequestRepository requests;
+
+    public InMemoryLeaveUsageRepository(RequestRepository requests) {
+        this.requests = requests;
+    }
+
+    @Override
+    protected String idOf(LeaveUsage usage) { return usage.getId(); }
+
+    @Override
+    protected void assignId(LeaveUsage usage, String id) { usage.setId(id); }
+
+    @Override
+    protected LeaveUsage copy(LeaveUsage u) {
+        var c = new LeaveUsage();
+        c.setId(u.getId());
+        c.setUserId(u.getUserId());
+        c.setMonth(u.getMonth());
+        c.setType(u.getType());
+        c.setUsedDays(u.getUsedDays());
+        c.setApproved(u.getApproved());
+        c.setRejected(u.getRejected());
+        c.setCancelled(u.getCancelled());
+        return c;
+    }
+
+    // # LeaveUsageRepositoryCustom
+    @Override
+    public void increment(Collection<Increment> increments) {
+        for (var i : increments) {
+            documents.compute(i.key(), (key, current) -> {
+                var next = current == null ? blank(key, i) : copy(current);
+                next.setUsedDays(next.getUsedDays() + i.usedDays());
+                next.setApproved(next.getApproved() + i.approved());
+                next.setRejected(next.getRejected() + i.rejected());
+                next.setCancelled(next.getCancelled() + i.cancelled());
+                return next;
+            });
+            ids.add(i.key());
+        }
+    }
+
+    @Override
+    public List<UsageRow> summarize(Collection<String> userIds, String fromMonth, String toMonth,
+                                    Collection<LeaveType> types, Set<Dimension> groupBy) {
+        // Keyed by a zero-count row holding only the grouped dimensions
+        Map<UsageRow, long[]> totals = new HashMap<>();
+        for (var u : documents.values()) {
+            if (fromMonth != null && u.getMonth().compareTo(fromMonth) < 0) continue;
+            if (toMonth != null && u.getMonth().compareTo(toMonth) > 0) continue;
+            if (userIds != null && !userIds.contains(u.getUserId())) continue;
+            if (types != null && !types.contains(u.getType())) continue;
+
+            var key = new UsageRow(
+                    groupBy.contains(Dimension.USER) ? u.getUserId() : null,
+                    groupBy.contains(Dimension.MONTH) ? u.getMonth() : null,
+                    groupBy.contains(Dimension.TYPE) ? u.getType() : null,
+                    0, 0, 0, 0);
+            var t = totals.computeIfAbsent(key, k -> new long[4]);
+            t[0] += u.getUsedDays();
+            t[1] += u.getApproved();
+            t[2] += u.getRejected();
+            t[3] += u.getCancelled();
+        }
+
+        List<UsageRow> rows = new ArrayList<>(totals.size());
+        totals.forEach((key, t) -> rows.add(new UsageRow(key.userId(), key.month(), key.type(), t[0], t[1], t[2], t[3])));
+        return rows;
+    }
+
+    @Override
+    public long rebuild() {
+        var finalStatuses = EnumSet.of(Status.APPROVED, Status.REJECTED, Status.CANCELLED);
+        documents.clear();
+        ids.clear();
+        List<Increment> increments = requests.findAll().stream()
+                .filter(r -> finalStatuses.contains(r.getStatus()))
+                .filter(r -> r.getStartDate() != null && r.getUserId() != null && r.getType() != null)
+                .map(r -> Increment.of(r, r.getStatus()))
+                .toList();
+        increment(increments);
+        return documents.size();
+    }
+
+    private static LeaveUsage blank(String key, Increment i) {
+        var u = new LeaveUsage();
+        u.setId(key);
+        u.setUserId(i.userId());
+        u.setMonth(i.month());
+        u.setType(i.type());
+        return u;
+    }
+}
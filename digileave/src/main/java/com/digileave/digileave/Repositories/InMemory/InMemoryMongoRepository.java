@@ -0,0 +1,463 @@
+package com.digileave.digileave.Repositories.InMemory;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.DirectFieldAccessor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.data.support.ExampleMatcherAccessor;
+
+/**
+ * Concurrent in-memory base for the {@code inmemory} profile. Documents live in a
+ * {@link ConcurrentHashMap}; every write goes through {@code compute} so a single document
+ * (and the secondary indexes maintained in {@link #reindex}) changes atomically, like a
+ * Mongo single-document write. Ids are ObjectId hex strings kept in a sorted set, so
+ * _id-ordered keyset queries don't need a scan. Callers always get copies.
+ */
+abstract class InMemoryMongoRepository<T> implements MongoRepository<T, String> {
+
+    protected final ConcurrentHashMap<String, T> documents = new ConcurrentHashMap<>();
+    protected final ConcurrentSkipListSet<String> ids = new ConcurrentSkipListSet<>();
+
+    protected abstract String idOf(T entity);
+    protected abstract void assignId(T entity, String id);
+    protected abstract T copy(T entity);
+
+    // # Secondary index hook, runs inside the document's compute - previous or current may be null
+    protected void reindex(String id, T previous, T current) {}
+
+    // # Atomic single-document update; returns the new copy or null when missing / unchanged
+    protected T update(String id, Function<T, T> change) {
+        if (id == null) return null;
+        Object[] result = new Object[1];
+        documents.computeIfPresent(id, (k, current) -> {
+            T next = change.apply(copy(current));
+            if (next == null) return current;
+            reindex(id, current, next);
+            result[0] = next;
+            return next;
+        });
+        @SuppressWarnings("unchecked")
+        T updated = (T) result[0];
+        return updated == null ? null : copy(updated);
+    }
+
+    protected List<T> scan(Predicate<T> filter) {
+        return documents.values().stream().filter(filter).map(this::copy).toList();
+    }
+
+    protected List<T> byIds(Iterable<String> keys) {
+        List<T> out = new ArrayList<>();
+        for (String key : keys) {
+            T doc = documents.get(key);
+            if (doc != null) out.add(copy(doc));
+        }
+        return out;
+    }
+
+    // # _id-ordered walk (keyset pagination); bound == null means from the start
+    protected List<T> ordered(boolean ascending, String bound, Predicate<T> filter, Limit limit) {
+        var keys = ascending
+                ? (bound == null ? ids : ids.tailSet(bound, false))
+                : (bound == null ? ids.descendingSet() : ids.headSet(bound, false).descendingSet());
+        int max = limit.isLimited() ? limit.max() : Integer.MAX_VALUE;
+        List<T> out = new ArrayList<>(Math.min(max, 64));
+        for (String key : keys) {
+            if (out.size() >= max) break;
+            T doc = documents.get(key);
+            if (doc != null && filter.test(doc)) out.add(copy(doc));
+        }
+        return out;
+    }
+
+    // # Lazy _id-ordered stream - documents are copied one at a time as it is consumed
+    protected Stream<T> streamOrdered(boolean ascending, Predicate<T> filter) {
+        var keys = ascending ? ids : ids.descendingSet();
+        return keys.stream()
+                .map(documents::get)
+                .filter(doc -> doc != null && filter.test(doc))
+                .map(this::copy);
+    }
+
+    // # CrudRepository
+    @Override
+    public <S extends T> S save(S entity) {
+        String id = idOf(entity);
+        if (id == null) {
+            id = new ObjectId().toHexString();
+            assignId(entity, id);
+        }
+        T stored = copy(entity);
+        documents.compute(id, (k, previous) -> {
+            reindex(k, previous, stored);
+            return stored;
+        });
+        ids.add(id);
+        return entity;
+    }
+
+    @Override
+    public <S extends T> List<S> saveAll(Iterable<S> entities) {
+        List<S> out = new ArrayList<>();
+        entities.forEach(e -> out.add(save(e)));
+        return out;
+    }
+
+    @Override
+    public <S extends T> S insert(S entity) {
+        String id = idOf(entity);
+        if (id != null && documents.containsKey(id)) {
+            throw new DuplicateKeyException("duplicate _id " + id);
+        }
+        return save(entity);
+    }
+
+    @Override
+    public <S extends T> List<S> insert(Iterable<S> entities) {
+        List<S> out = new ArrayList<>();
+        entities.forEach(e -> out.add(insert(e)));
+        return out;
+    }
+
+    @Override
+    public Optional<T> findById(String id) {
+        if (id == null) throw new IllegalArgumentException("The given id must not be null");
+        return Optional.ofNullable(documents.get(id)).map(this::copy);
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return id != null && documents.containsKey(id);
+    }
+
+    @Override
+    public List<T> findAll() {
+        return ordered(true, null, d -> true, Limit.unlimited());
+    }
+
+    @Override
+    public List<T> findAllById(Iterable<String> keys) {
+        return byIds(keys);
+    }
+
+    @Override
+    public long count() {
+        return documents.size();
+    }
+
+    @Override
+    public void deleteById(String id) {
+        if (id == null) return;
+        documents.computeIfPresent(id, (k, previous) -> {
+            reindex(k, previous, null);
+            return null;
+        });
+        ids.remove(id);
+    }
+
+    @Override
+    public void delete(T entity) {
+        deleteById(idOf(entity));
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends String> keys) {
+        keys.forEach(this::deleteById);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends T> entities) {
+        entities.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        List.copyOf(ids).forEach(this::deleteById);
+    }
+
+    // # Paging & sorting
+    @Override
+    public List<T> findAll(Sort sort) {
+        return sorted(findAll().stream(), sort).toList();
+    }
+
+    @Override
+    public Page<T> findAll(Pageable pageable) {
+        var all = sorted(findAll().stream(), pageable.getSort()).toList();
+        if (pageable.isUnpaged()) return new PageImpl<>(all);
+        int from = (int) Math.min(pageable.getOffset(), all.size());
+        int to = Math.min(from + pageable.getPageSize(), all.size());
+        return new PageImpl<>(all.subList(from, to), pageable, all.size());
+    }
+
+    private static <D> Stream<D> sorted(Stream<D> stream, Sort sort) {
+        if (sort == null || sort.isUnsorted()) return stream;
+        Comparator<D> comparator = null;
+        for (Sort.Order order : sort) {
+            String name = order.getProperty();
+            Comparator<D> next = (a, b) -> compareValues(property(a, name), property(b, name));
+            if (order.isDescending()) next = next.reversed();
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return stream.sorted(comparator);
+    }
+
+    private static Object property(Object doc, String name) {
+        return new DirectFieldAccessor(doc).getPropertyValue(name);
+    }
+
+    // # Nulls first, like Mongo's ascending sort
+    private static int compareValues(Object a, Object b) {
+        if (a == null || b == null) return a == null ? (b == null ? 0 : -1) : 1;
+        // Both come from the same field of the same document type, so they share a Comparable type
+        @SuppressWarnings("unchecked")
+        var comparable = (Comparable<Object>) a;
+        return comparable.compareTo(b);
+    }
+
+    // # Query by example - the probe's fields matched per the ExampleMatcher, as Spring Data Mongo translates it
+    @Override
+    public <S extends T> Optional<S> findOne(Example<S> example) {
+        var found = matching(example);
+        if (found.size() > 1) throw new IncorrectResultSizeDataAccessException(1, found.size());
+        return found.stream().findFirst();
+    }
+
+    @Override
+    public <S extends T> List<S> findAll(Example<S> example) {
+        return matching(example);
+    }
+
+    @Override
+    public <S extends T> List<S> findAll(Example<S> example, Sort sort) {
+        return sorted(matching(example).stream(), sort).toList();
+    }
+
+    @Override
+    public <S extends T> Page<S> findAll(Example<S> example, Pageable pageable) {
+        var all = sorted(matching(example).stream(), pageable.getSort()).toList();
+        if (pageable.isUnpaged()) return new PageImpl<>(all);
+        int from = (int) Math.min(pageable.getOffset(), all.size());
+        int to = Math.min(from + pageable.getPageSize(), all.size());
+        return new PageImpl<>(all.subList(from, to), pageable, all.size());
+    }
+
+    @Override
+    public <S extends T> long count(Example<S> example) {
+        return documents.values().stream().filter(matcher(example)).count();
+    }
+
+    @Override
+    public <S extends T> boolean exists(Example<S> example) {
+        return documents.values().stream().anyMatch(matcher(example));
+    }
+
+    @Override
+    public <S extends T, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        return queryFunction.apply(new FetchableQuery<>(() -> matching(example), Sort.unsorted(), 0, null, List.of()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <S extends T> List<S> matching(Example<S> example) {
+        return (List<S>) ordered(true, null, matcher(example), Limit.unlimited());
+    }
+
+    // # The probe's fields (non-null ones unless NullHandler.INCLUDE), with the matcher's per-path string matching
+    private Predicate<T> matcher(Example<?> example) {
+        var matcher = new ExampleMatcherAccessor(example.getMatcher());
+        boolean includeNulls = matcher.getNullHandler() == ExampleMatcher.NullHandler.INCLUDE;
+
+        Map<String, Object> expected = new LinkedHashMap<>();
+        var probe = new DirectFieldAccessor(example.getProbe());
+        for (Class<?> type = example.getProbeType(); type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                String path = field.getName();
+                if (Modifier.isStatic(field.getModifiers()) || matcher.isIgnoredPath(path) || expected.containsKey(path)) continue;
+                Object value = matcher.getValueTransformerForPath(path)
+                        .apply(Optional.ofNullable(probe.getPropertyValue(path))).orElse(null);
+                if (value != null || includeNulls) expected.put(path, value);
+            }
+        }
+
+        boolean any = example.getMatcher().isAnyMatching();
+        return doc -> {
+            if (expected.isEmpty()) return true;
+            var fields = new DirectFieldAccessor(doc);
+            Predicate<Map.Entry<String, Object>> matches =
+                    e -> valueMatches(matcher, e.getKey(), fields.getPropertyValue(e.getKey()), e.getValue());
+            return any
+                    ? expected.entrySet().stream().anyMatch(matches)
+                    : expected.entrySet().stream().allMatch(matches);
+        };
+    }
+
+    // ! String matchers apply to String fields only, as in Mongo - everything else compares by equality
+    private static boolean valueMatches(ExampleMatcherAccessor matcher, String path, Object actual, Object wanted) {
+        if (!(wanted instanceof String want)) return Objects.equals(actual, wanted);
+        if (!(actual instanceof String value)) return false;
+        boolean ignoreCase = matcher.isIgnoreCaseForPath(path);
+        return switch (matcher.getStringMatcherForPath(path)) {
+            case DEFAULT, EXACT -> ignoreCase ? value.equalsIgnoreCase(want) : value.equals(want);
+            case STARTING -> value.regionMatches(ignoreCase, 0, want, 0, want.length());
+            case ENDING -> value.length() >= want.length()
+                    && value.regionMatches(ignoreCase, value.length() - want.length(), want, 0, want.length());
+            case CONTAINING -> ignoreCase
+                    ? value.toLowerCase(Locale.ROOT).contains(want.toLowerCase(Locale.ROOT))
+                    : value.contains(want);
+            case REGEX -> Pattern.compile(want, ignoreCase ? Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE : 0)
+                    .matcher(value).find();
+        };
+    }
+
+    /**
+     * {@link #findBy(Example, Function)} over the matching documents. {@code project} keeps the id
+     * and the listed fields and clears the others, like a Mongo field projection; {@code as} returns
+     * the documents themselves for a supertype, a proxy for an interface projection and otherwise
+     * calls the DTO's constructor with the document fields named like its parameters.
+     */
+    private static final class FetchableQuery<S, R> implements FluentQuery.FetchableFluentQuery<R> {
+
+        private static final ProjectionFactory PROJECTIONS = new SpelAwareProxyProjectionFactory();
+
+        private final Supplier<List<S>> source;
+        private final Sort sort;
+        private final int limit;
+        private final Class<R> resultType;
+        private final Collection<String> fields;
+
+        FetchableQuery(Supplier<List<S>> source, Sort sort, int limit, Class<R> resultType, Collection<String> fields) {
+            this.source = source;
+            this.sort = sort;
+            this.limit = limit;
+            this.resultType = resultType;
+            this.fields = fields;
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<R> sortBy(Sort sort) {
+            return new FetchableQuery<>(source, this.sort.and(sort), limit, resultType, fields);
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<R> limit(int limit) {
+            if (limit < 0) throw new IllegalArgumentException("Limit must not be negative");
+            return new FetchableQuery<>(source, sort, limit, resultType, fields);
+        }
+
+        @Override
+        public <P> FluentQuery.FetchableFluentQuery<P> as(Class<P> resultType) {
+            return new FetchableQuery<>(source, sort, limit, resultType, fields);
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<R> project(Collection<String> properties) {
+            return new FetchableQuery<>(source, sort, limit, resultType, List.copyOf(properties));
+        }
+
+        @Override
+        public R oneValue() {
+            var found = results(sort).limit(2).toList();
+            if (found.size() > 1) throw new IncorrectResultSizeDataAccessException(1, found.size());
+            return found.isEmpty() ? null : convert(found.get(0));
+        }
+
+        @Override
+        public R firstValue() {
+            return results(sort).findFirst().map(this::convert).orElse(null);
+        }
+
+        @Override
+        public List<R> all() {
+            return stream().toList();
+        }
+
+        @Override
+        public Page<R> page(Pageable pageable) {
+            var all = results(pageable.getSort().isSorted() ? pageable.getSort() : sort).toList();
+            if (pageable.isUnpaged()) return new PageImpl<>(all.stream().map(this::convert).toList());
+            int from = (int) Math.min(pageable.getOffset(), all.size());
+            int to = Math.min(from + pageable.getPageSize(), all.size());
+            return new PageImpl<>(all.subList(from, to).stream().map(this::convert).toList(), pageable, all.size());
+        }
+
+        @Override
+        public Stream<R> stream() {
+            return results(sort).map(this::convert);
+        }
+
+        @Override
+        public long count() {
+            return results(Sort.unsorted()).count();
+        }
+
+        @Override
+        public boolean exists() {
+            return results(Sort.unsorted()).findAny().isPresent();
+        }
+
+        private Stream<S> results(Sort order) {
+            var sorted = sorted(source.get().stream(), order);
+            return limit > 0 ? sorted.limit(limit) : sorted;
+        }
+
+        @SuppressWarnings("unchecked")
+        private R convert(S doc) {
+            if (!fields.isEmpty()) clearUnprojected(doc);
+            if (resultType == null || resultType.isInstance(doc)) return (R) doc;
+            if (resultType.isInterface()) return PROJECTIONS.createProjection(resultType, doc);
+
+            Constructor<R> constructor = BeanUtils.getResolvableConstructor(resultType);
+            String[] names = BeanUtils.getParameterNames(constructor);
+            var values = new DirectFieldAccessor(doc);
+            Object[] args = new Object[names.length];
+            for (int i = 0; i < names.length; i++) {
+                args[i] = values.isReadableProperty(names[i]) ? values.getPropertyValue(names[i]) : null;
+            }
+            return BeanUtils.instantiateClass(constructor, args);
+        }
+
+        // ! Primitive fields can't be cleared and keep their value - documents are copies, so this is safe
+        private void clearUnprojected(S doc) {
+            var values = new DirectFieldAccessor(doc);
+            for (Class<?> type = doc.getClass(); type != null && type != Object.class; type = type.getSuperclass()) {
+                for (Field field : type.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers()) || field.getType().isPrimitive()
+                            || field.isAnnotationPresent(Id.class) || fields.contains(field.getName())) continue;
+                    values.setPropertyValue(field.getName(), null);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.digileave.digileave.Repositories.InMemory;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
+
+import org.bson.types.ObjectId;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Repository;
+
+import com.digileave.digileave.Models.Request;
+import com.digileave.digileave.Models.enums.Status;
+import com.digileave.digileave.Repositories.RequestRepository;
+
+// # RequestRepository without MongoDB - hash index userId -> sorted request ids
+@Repository
+@Profile("inmemory")
+public class InMemoryRequestRepository extends InMemoryMongoRepository<Request> implements RequestRepository {
+
+    private final ConcurrentHashMap<String, ConcurrentSkipListSet<String>> idsByUserId = new ConcurrentHashMap<>();
+
+    @Override
+    protected String idOf(Request request) { return request.getId(); }
+
+    @Override
+    protected void assignId(Request request, String id) { request.setId(id); }
+
+    @Override
+    protected Request copy(Request r) {
+        var c = new Request();
+        c.setId(r.getId());
+        c.setUserId(r.getUserId());
+        c.setStartDate(r.getStartDate());
+        c.setEndDate(r.getEndDate());
+        c.setWorkdaysCount(r.getWorkdaysCount());
+        c.setStatus(r.getStatus());
+        c.setType(r.getType());
+        c.setComment(r.getComment());
+        c.setDecision_Seen(r.getDecision_Seen());
+        c.setDecidedByUserId(r.getDecidedByUserId());
+        c.setDecidedAt(r.getDecidedAt());
+        c.setDecisionBatch(r.getDecisionBatch());
+        c.setCreatedAt(r.getCreatedAt());
+        return c;
+    }
+
+    @Override
+    protected void reindex(String id, Request previous, Request current) {
+        String oldUser = previous == null ? null : previous.getUserId();
+        String newUser = current == null ? null : current.getUserId();
+        if (oldUser != null && !oldUser.equals(newUser)) {
+            idsByUserId.computeIfPresent(oldUser, (k, set) -> { set.remove(id); return set.isEmpty() ? null : set; });
+        }
+        if (newUser != null) {
+            idsByUserId.computeIfAbsent(newUser, k -> new ConcurrentSkipListSet<>()).add(id);
+        }
+    }
+
+    private NavigableSet<String> idsOf(String userId) {
+        NavigableSet<String> own = userId == null ? null : idsByUserId.get(userId);
+        return own == null ? Collections.emptyNavigableSet() : own;
+    }
+
+    // # Derived queries
+    @Override
+    public List<Request> findByUserId(String userId) {
+        return byIds(idsOf(userId));
+    }
+
+    @Override
+    public List<Request> findByUserIdIn(List<String> userIds) {
+        return userIds.stream().distinct().flatMap(u -> byIds(idsOf(u)).stream()).toList();
+    }
+
+    @Override
+    public List<Request> findByUserIdInOrderByIdDesc(List<String> userIds, Limit limit) {
+        return findByUserIdInAndIdLessThanOrderByIdDesc(userIds, null, limit);
+    }
+
+    @Override
+    public List<Request> findByUserIdInAndIdLessThanOrderByIdDesc(List<String> userIds, String id, Limit limit) {
+        // merge the newest `max` ids of each user's sorted set instead of walking every request
+        int max = limit.isLimited() ? limit.max() : Integer.MAX_VALUE;
+        var merged = new TreeSet<String>(Comparator.reverseOrder());
+        for (String userId : new HashSet<>(userIds)) {
+            var own = idsOf(userId);
+            var newestFirst = (id == null ? own : own.headSet(id, false)).descendingSet();
+            newestFirst.stream().limit(max).forEach(merged::add);
+        }
+        return byIds(merged.stream().limit(max).toList());
+    }
+
+    @Override
+    public Stream<Request> streamAllByOrderByIdDesc() {
+        return streamOrdered(false, r -> true);
+    }
+
+    @Override
+    public Stream<Request> streamByUserIdOrderByIdDesc(String userId) {
+        return idsOf(userId).descendingSet().stream()
+                .map(documents::get)
+                .filter(Objects::nonNull)
+                .map(this::copy);
+    }
+
+    @Override
+    public Stream<Request> streamByUserIdInOrderByIdDesc(Collection<String> userIds) {
+        var owners = Set.copyOf(userIds);
+        return streamOrdered(false, r -> owners.contains(r.getUserId()));
+    }
+
+    @Override
+    public Stream<Request> streamByStatusIn(Collection<Status> statuses) {
+        return streamOrdered(true, r -> statuses.contains(r.getStatus()));
+    }
+
+    @Override
+    public boolean existsOverlapping(String userId, Collection<Status> statuses, LocalDate start, LocalDate end) {
+        return idsOf(userId).stream()
+                .map(documents::get)
+                .filter(Objects::nonNull)
+                .anyMatch(r -> statuses.contains(r.getStatus())
+                        && r.getStartDate() != null && r.getEndDate() != null
+                        && !r.getStartDate().isAfter(end)
+                        && !r.getEndDate().isBefore(start));
+    }
+
+    // # RequestRepositoryCustom
+    @Override
+    public Optional<Request> decideIfPending(String requestId, Collection<String> ownerIds,
+                                             Status status, String decidedByUserId, Instant decidedAt) {
+        return Optional.ofNullable(update(requestId, r -> {
+            if (r.getStatus() != Status.PENDING) return null;
+            if (ownerIds != null && !ownerIds.contains(r.getUserId())) return null;
+            r.setStatus(status);
+            r.setDecision_Seen(false);
+            r.setDecidedByUserId(decidedByUserId);
+            r.setDecidedAt(decidedAt);
+            return r;
+        }));
+    }
+
+    @Override
+    public Set<String> decideAllIfPending(Collection<String> requestIds, Status status,
+                                          String decidedByUserId, Instant decidedAt) {
+        var batch = new ObjectId().toHexString();
+        Set<String> decided = new HashSet<>();
+        for (String id : requestIds) {
+            var r = update(id, d -> {
+                if (d.getStatus() != Status.PENDING) return null;
+                d.setStatus(status);
+                d.setDecision_Seen(false);
+                d.setDecidedByUserId(decidedByUserId);
+                d.setDecidedAt(decidedAt);
+                d.setDecisionBatch(batch);
+                return d;
+            });
+            if (r != null) decided.add(id);
+        }
+        return decided;
+    }
+
+    @Override
+    public Optional<Request> cancelIfPending(String requestId, String userId, Instant cancelledAt) {
+        return Optional.ofNullable(update(requestId, r -> {
+            if (r.getStatus() != Status.PENDING || !Objects.equals(r.getUserId(), userId)) return null;
+            r.setStatus(Status.CANCELLED);
+            r.setDecidedAt(cancelledAt);
+            return r;
+        }));
+    }
+
+    @Override
+    public void restorePending(String requestId, Status decidedStatus) {
+        update(requestId, r -> {
+            if (r.getStatus() != decidedStatus) return null;
+            r.setStatus(Status.PENDING);
+            r.setDecision_Seen(true);
+            r.setDecidedByUserId(null);
+            r.setDecidedAt(null);
+            r.setDecisionBatch(null);
+            return r;
+        });
+    }
+
+    @Override
+    public void restoreAllPending(Collection<String> requestIds, Status decidedStatus) {
+        for (String id : requestIds) restorePending(id, decidedStatus);
+    }
+
+    @Override
+    public long updateWorkdaysCounts(Map<String, Integer> workdaysById) {
+        long modified = 0;
+        for (var entry : workdaysById.entrySet()) {
+            var updated = update(entry.getKey(), r -> {
+                if (r.getWorkdaysCount() == entry.getValue()) return null;
+                r.setWorkdaysCount(entry.getValue());
+                return r;
+            });
+            if (updated != null) modified++;
+        }
+        return modified;
+    }
+
+    @Override
+    public List<Request> findPendingInbox(Collection<String> userIds, int limit) {
+        return pending(userIds)
+                .sorted(Comparator.comparing(Request::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder())))
+                .limit(limit)
+                .map(this::copy)
+                .toList();
+    }
+
+    // Documents are copied whole here - the DTO mapping still drops what wasn't asked for
+    @Override
+    public List<Request> findPage(Collection<String> userIds, String beforeId, Limit limit, Collection<String> fields) {
+        return userIds == null
+                ? ordered(false, beforeId, r -> true, limit)
+                : findByUserIdInAndIdLessThanOrderByIdDesc(List.copyOf(userIds), beforeId, limit);
+    }
+
+    @Override
+    public long countPendingInbox(Collection<String> userIds) {
+        return pending(userIds).count();
+    }
+
+    private Stream<Request> pending(Collection<String> userIds) {
+        var candidates = userIds == null
+                ? documents.values().stream()
+                : userIds.stream().distinct().flatMap(u -> idsOf(u).stream()).map(documents::get).filter(Objects::nonNull);
+        return candidates.filter(r -> r.getStatus() == Status.PENDING);
+    }
+
+    @Override
+    public Optional<Request> markDecisionSeen(String requestId, String ownerId) {
+        Request[] before = new Request[1];
+        update(requestId, r -> {
+            if (!Objects.equals(ownerId, r.getUserId())) return null;
+            before[0] = copy(r);
+            if (Boolean.TRUE.equals(r.getDecision_Seen())) return null;
+            r.setDecision_Seen(true);
+            return r;
+        });
+        return Optional.ofNullable(before[0]);
+    }
+
+    @Override
+    public long markAllDecisionsSeen(String ownerId) {
+        long flipped = 0;
+        for (String id : idsOf(ownerId)) {
+            var updated = update(id, r -> {
+                if (!Boolean.FALSE.equals(r.getDecision_Seen())) return null;
+                r.setDecision_Seen(true);
+                return r;
+            });
+            if (updated != null) flipped++;
+        }
+        return flipped;
+    }
+
+    @Override
+    public Map<String, Integer> countUnseenDecisionsByUser() {
+        Map<String, Integer> counts = new HashMap<>();
+        for (var r : documents.values()) {
+            if (Boolean.FALSE.equals(r.getDecision_Seen())) counts.merge(r.getUserId(), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    @Override
+    public Stream<Request> streamForExport(ExportFilter filter) {
+        return documents.values().stream()
+                .filter(r -> filter.userIds() == null || filter.userIds().contains(r.getUserId()))
+                .filter(r -> filter.to() == null || (r.getStartDate() != null && !r.getStartDate().isAfter(filter.to())))
+                .filter(r -> filter.from() == null || (r.getEndDate() != null && !r.getEndDate().isBefore(filter.from())))
+                .filter(r -> filter.types() == null || filter.types().contains(r.getType()))
+                .filter(r -> filter.statuses() == null || filter.statuses().contains(r.getStatus()))
+                .sorted(Comparator.comparing(Request::getStartDate, Comparator.nullsFirst(Comparator.naturalOrder()))
+                        .thenComparing(Request::getId))
+                .map(this::copy);
+    }
+}
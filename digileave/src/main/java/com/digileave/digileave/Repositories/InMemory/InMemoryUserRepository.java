@@ -0,0 +1,214 @@
+package com.digileave.digileave.Repositories.InMemory;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Repository;
+
+import com.digileave.digileave.DTOs.UserPatchDto;
+import com.digileave.digileave.Models.User;
+import com.digileave.digileave.Models.enums.Role;
+import com.digileave.digileave.Repositories.UserRepository;
+
+// # UserRepository without MongoDB - hash indexes on email (unique) and anniversaryMonthDay
+@Repository
+@Profile("inmemory")
+public class InMemoryUserRepository extends InMemoryMongoRepository<User> implements UserRepository {
+
+    private final ConcurrentHashMap<String, String> idByEmail = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Set<String>> idsByAnniversary = new ConcurrentHashMap<>();
+
+    @Override
+    protected String idOf(User user) { return user.getId(); }
+
+    @Override
+    protected void assignId(User user, String id) { user.setId(id); }
+
+    @Override
+    protected User copy(User u) {
+        var c = new User();
+        c.setId(u.getId());
+        c.setEmail(u.getEmail());
+        c.setFullName(u.getFullName());
+        c.setRole(u.getRole());
+        c.setAvailableLeaveDays(u.getAvailableLeaveDays());
+        c.setContractLeaveDays(u.getContractLeaveDays());
+        c.setWorkingSince(u.getWorkingSince());
+        c.setAssigneeIds(u.getAssigneeIds() == null ? null : new ArrayList<>(u.getAssigneeIds()));
+        c.setLastContractAccrualYear(u.getLastContractAccrualYear());
+        c.setUnreadDecisions(u.getUnreadDecisions());
+        return c;
+    }
+
+    @Override
+    protected void reindex(String id, User previous, User current) {
+        String newEmail = current == null ? null : current.getEmail();
+        if (newEmail != null) {
+            String owner = idByEmail.putIfAbsent(newEmail, id);
+            if (owner != null && !owner.equals(id)) {
+                throw new DuplicateKeyException("duplicate email " + newEmail);
+            }
+        }
+        if (previous != null && previous.getEmail() != null && !previous.getEmail().equals(newEmail)) {
+            idByEmail.remove(previous.getEmail(), id);
+        }
+
+        String oldKey = previous == null ? null : previous.getAnniversaryMonthDay();
+        String newKey = current == null ? null : current.getAnniversaryMonthDay();
+        if (oldKey != null && !oldKey.equals(newKey)) {
+            idsByAnniversary.computeIfPresent(oldKey, (k, set) -> { set.remove(id); return set.isEmpty() ? null : set; });
+        }
+        if (newKey != null) {
+            idsByAnniversary.computeIfAbsent(newKey, k -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    // # Derived queries
+    @Override
+    public Optional<User> findByEmail(String email) {
+        String id = email == null ? null : idByEmail.get(email);
+        return id == null ? Optional.empty() : findById(id);
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return email != null && idByEmail.containsKey(email);
+    }
+
+    @Override
+    public List<User> findByRoleIn(Collection<Role> roles) {
+        return scan(u -> roles.contains(u.getRole()));
+    }
+
+
+    // # UserRepositoryCustom
+    @Override
+    public long accrueYearlyContractLeaveDays(int year, int maxBalance, int chunkSize) {
+        long processed = 0;
+        for (String id : ids) {
+            var updated = update(id, u -> {
+                if (Integer.valueOf(year).equals(u.getLastContractAccrualYear())) return null;
+                LocalDate since = u.getWorkingSince();
+                int seniority = since == null ? 0 : Math.max(0, year - 1 - since.getYear());
+                u.setAvailableLeaveDays(Math.min(maxBalance, u.getAvailableLeaveDays() + u.getContractLeaveDays() + seniority));
+                u.setLastContractAccrualYear(year);
+                return u;
+            });
+            if (updated != null) processed++;
+        }
+        return processed;
+    }
+
+    @Override
+    public long addAnniversaryDay(Collection<String> monthDays, int maxBalance) {
+        long updated = 0;
+        for (String key : monthDays) {
+            for (String id : List.copyOf(idsByAnniversary.getOrDefault(key, Set.of()))) {
+                var u = update(id, user -> {
+                    if (user.getAvailableLeaveDays() >= maxBalance) return null;
+                    user.setAvailableLeaveDays(user.getAvailableLeaveDays() + 1);
+                    return user;
+                });
+                if (u != null) updated++;
+            }
+        }
+        return updated;
+    }
+
+    // Anniversary keys are always derived on save here
+    @Override
+    public long backfillAnniversaryMonthDay() {
+        return 0;
+    }
+
+    @Override
+    public boolean recordDecision(String userId, int leaveDaysDelta) {
+        return update(userId, u -> {
+            u.setAvailableLeaveDays(u.getAvailableLeaveDays() + leaveDaysDelta);
+            u.setUnreadDecisions(u.getUnreadDecisions() + 1);
+            return u;
+        }) != null;
+    }
+
+    @Override
+    public void recordDecisions(Map<String, DecisionTotals> totalsByUser) {
+        totalsByUser.forEach((userId, t) -> update(userId, u -> {
+            u.setAvailableLeaveDays(u.getAvailableLeaveDays() + t.leaveDaysDelta());
+            u.setUnreadDecisions(u.getUnreadDecisions() + t.decisions());
+            return u;
+        }));
+    }
+
+    @Override
+    public void incrementUnreadDecisions(String userId, int delta) {
+        update(userId, u -> {
+            u.setUnreadDecisions(Math.max(0, u.getUnreadDecisions() + delta));
+            return u;
+        });
+    }
+
+    @Override
+    public int unreadDecisionsOf(String userId) {
+        var u = userId == null ? null : documents.get(userId);
+        return u == null ? 0 : Math.max(0, u.getUnreadDecisions());
+    }
+
+    @Override
+    public void resetUnreadDecisions(Map<String, Integer> counts) {
+        for (String id : ids) {
+            int n = counts.getOrDefault(id, 0);
+            update(id, u -> {
+                if (u.getUnreadDecisions() == n) return null;
+                u.setUnreadDecisions(n);
+                return u;
+            });
+        }
+    }
+
+    // Documents are copied whole here - the DTO mapping still drops what wasn't asked for
+    @Override
+    public List<User> findPage(Collection<String> ids, String afterId, Limit limit, Collection<String> fields) {
+        if (ids == null) return ordered(true, afterId, u -> true, limit);
+        var keys = ids.stream().filter(id -> afterId == null || id.compareTo(afterId) > 0).sorted()
+                .limit(limit.isLimited() ? limit.max() : Long.MAX_VALUE).toList();
+        return byIds(keys);
+    }
+
+    @Override
+    public ImportResult upsertByEmail(List<UserPatchDto> rows) {
+        long inserted = 0, updated = 0;
+        Map<Integer, String> errors = new HashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            var row = rows.get(i);
+            var existing = findByEmail(row.email());
+            var user = existing.orElseGet(User::new);
+            if (existing.isEmpty()) {
+                user.setEmail(row.email());
+                user.setFullName(row.email().substring(0, row.email().indexOf('@')));
+            }
+            if (row.fullName() != null) user.setFullName(row.fullName());
+            if (row.role() != null) user.setRole(row.role());
+            if (row.availableLeaveDays() != null) user.setAvailableLeaveDays(row.availableLeaveDays());
+            if (row.contractLeaveDays() != null) user.setContractLeaveDays(row.contractLeaveDays());
+            if (row.workingSince() != null) user.setWorkingSince(row.workingSince());
+            if (row.assigneeIds() != null) user.setAssigneeIds(new ArrayList<>(row.assigneeIds()));
+            try {
+                save(user);
+                if (existing.isPresent()) updated++; else inserted++;
+            } catch (DuplicateKeyException e) {
+                errors.put(i, e.getMessage());
+            }
+        }
+        return new ImportResult(inserted, updated, errors);
+    }
+}
@@ -0,0 +1,8 @@
+package com.digileave.digileave.Repositories;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import com.digileave.digileave.Models.LeaveUsage;
+
+public interface LeaveUsageRepository extends MongoRepository<LeaveUsage, String>, LeaveUsageRepositoryCustom {
+}
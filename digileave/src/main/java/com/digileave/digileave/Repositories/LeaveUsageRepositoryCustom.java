@@ -0,0 +1,60 @@
+package com.digileave.digileave.Repositories;
+
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import com.digileave.digileave.Models.LeaveUsage;
+import com.digileave.digileave.Models.Request;
+import com.digileave.digileave.Models.enums.LeaveType;
+import com.digileave.digileave.Models.enums.Status;
+
+// # Rollup maintenance and reads for leave_usage
+public interface LeaveUsageRepositoryCustom {
+
+    // # One request reaching a final status, as counter deltas on its (user, month, type) rollup
+    record Increment(String userId, String month, LeaveType type, int usedDays, int approved, int rejected, int cancelled) {
+        public static Increment of(Request r, Status outcome) {
+            return new Increment(r.getUserId(), monthOf(r), r.getType(),
+                    outcome == Status.APPROVED ? r.getWorkdaysCount() : 0,
+                    outcome == Status.APPROVED ? 1 : 0,
+                    outcome == Status.REJECTED ? 1 : 0,
+                    outcome == Status.CANCELLED ? 1 : 0);
+        }
+
+        public String key() {
+            return LeaveUsage.key(userId, month, type);
+        }
+    }
+
+    enum Dimension { USER, MONTH, TYPE }
+
+    // Totals for one group - dimensions not grouped by are null
+    record UsageRow(String userId, String month, LeaveType type, long usedDays, long approved, long rejected, long cancelled) {}
+
+    // ! A request counts in the month it starts in - the rebuild pipeline uses the same rule
+    static String monthOf(Request r) {
+        return YearMonth.from(r.getStartDate()).toString();
+    }
+
+    /**
+     * Applies the increments as one unordered bulk of {@code $inc} upserts - rollups that
+     * don't exist yet are created.
+     */
+    void increment(Collection<Increment> increments);
+
+    /**
+     * Sums the rollups with {@code fromMonth <= month <= toMonth} ("yyyy-MM", inclusive, either may be null),
+     * restricted to {@code userIds} and {@code types} when those are not null, grouped by {@code groupBy}.
+     */
+    List<UsageRow> summarize(Collection<String> userIds, String fromMonth, String toMonth,
+                             Collection<LeaveType> types, Set<Dimension> groupBy);
+
+    /**
+     * Regenerates every rollup from the requests and replaces the collection.
+     *
+     * @return number of rollup documents written
+     */
+    long rebuild();
+}
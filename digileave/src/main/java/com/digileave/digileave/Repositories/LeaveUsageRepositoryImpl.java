@@ -0,0 +1,132 @@
+package com.digileave.digileave.Repositories;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject;
+
+import com.digileave.digileave.Models.LeaveUsage;
+import com.digileave.digileave.Models.Request;
+import com.digileave.digileave.Models.enums.LeaveType;
+import com.digileave.digileave.Models.enums.Status;
+
+public class LeaveUsageRepositoryImpl implements LeaveUsageRepositoryCustom {
+
+    private static final List<String> COUNTERS = List.of("usedDays", "approved", "rejected", "cancelled");
+
+    private final MongoTemplate mongo;
+
+    public LeaveUsageRepositoryImpl(MongoTemplate mongo) {
+        this.mongo = mongo;
+    }
+
+    @Override
+    public void increment(Collection<Increment> increments) {
+        if (increments.isEmpty()) return;
+        var bulk = mongo.bulkOps(BulkOperations.BulkMode.UNORDERED, LeaveUsage.class);
+        for (var i : increments) {
+            var update = new Update()
+                    .setOnInsert("userId", i.userId())
+                    .setOnInsert("month", i.month())
+                    .setOnInsert("type", i.type())
+                    .inc("usedDays", i.usedDays())
+                    .inc("approved", i.approved())
+                    .inc("rejected", i.rejected())
+                    .inc("cancelled", i.cancelled());
+            bulk.upsert(new Query(Criteria.where("_id").is(i.key())), update);
+        }
+        bulk.execute();
+    }
+
+    @Override
+    public List<UsageRow> summarize(Collection<String> userIds, String fromMonth, String toMonth,
+                                    Collection<LeaveType> types, Set<Dimension> groupBy) {
+        var criteria = new Criteria();
+        if (fromMonth != null || toMonth != null) {
+            var month = criteria.and("month");
+            if (fromMonth != null) month.gte(fromMonth);
+            if (toMonth != null) month.lte(toMonth);
+        }
+        if (userIds != null) criteria.and("userId").in(userIds);
+        if (types != null) criteria.and("type").in(types);
+
+        // # $group on the requested dimensions only - _id is a sub-document (or null for a grand total)
+        Document key = new Document();
+        if (groupBy.contains(Dimension.USER)) key.append("userId", "$userId");
+        if (groupBy.contains(Dimension.MONTH)) key.append("month", "$month");
+        if (groupBy.contains(Dimension.TYPE)) key.append("type", "$type");
+        Document group = new Document("_id", key.isEmpty() ? null : key);
+        COUNTERS.forEach(c -> group.append(c, new Document("$sum", "$" + c)));
+
+        var aggregation = Aggregation.newAggregation(
+                Aggregation.match(criteria),
+                ctx -> new Document("$group", group));
+
+        List<UsageRow> rows = new ArrayList<>();
+        for (var d : mongo.aggregate(aggregation, LeaveUsage.class, Document.class)) {
+            var id = d.get("_id", Document.class);
+            String type = id == null ? null : id.getString("type");
+            rows.add(new UsageRow(
+                    id == null ? null : id.getString("userId"),
+                    id == null ? null : id.getString("month"),
+                    type == null ? null : LeaveType.valueOf(type),
+                    number(d, "usedDays"), number(d, "approved"), number(d, "rejected"), number(d, "cancelled")));
+        }
+        return rows;
+    }
+
+    @Override
+    public long rebuild() {
+        var finalStatuses = EnumSet.of(Status.APPROVED, Status.REJECTED, Status.CANCELLED).stream().map(Enum::name).toList();
+
+        // Same key rule as Increment.of - month of startDate, read in the zone it was stored in
+        var month = new Document("$dateToString", new Document("format", "%Y-%m")
+                .append("date", "$startDate")
+                .append("timezone", StoredDates.timezone()));
+        var group = new Document("_id", new Document("userId", "$userId").append("month", month).append("type", "$type"))
+                .append("usedDays", new Document("$sum", when(Status.APPROVED, "$workdaysCount")))
+                .append("approved", new Document("$sum", when(Status.APPROVED, 1)))
+                .append("rejected", new Document("$sum", when(Status.REJECTED, 1)))
+                .append("cancelled", new Document("$sum", when(Status.CANCELLED, 1)));
+        var project = new Document("_id", new Document("$concat", List.of("$_id.userId", "|", "$_id.month", "|", "$_id.type")))
+                .append("userId", "$_id.userId")
+                .append("month", "$_id.month")
+                .append("type", "$_id.type");
+        COUNTERS.forEach(c -> project.append(c, 1));
+
+        List<AggregationOperation> stages = List.of(
+                Aggregation.match(Criteria.where("status").in(finalStatuses)
+                        .and("startDate").type(JsonSchemaObject.Type.DATE)
+                        .and("userId").type(JsonSchemaObject.Type.STRING)
+                        .and("type").type(JsonSchemaObject.Type.STRING)),
+                ctx -> new Document("$group", group),
+                ctx -> new Document("$project", project),
+                // ! $out swaps the collection in atomically - increments landing while it runs are lost
+                Aggregation.out(mongo.getCollectionName(LeaveUsage.class)));
+
+        var options = Aggregation.newAggregationOptions().allowDiskUse(true).build();
+        mongo.aggregate(Aggregation.newAggregation(stages).withOptions(options),
+                mongo.getCollectionName(Request.class), Document.class);
+        return mongo.getCollection(mongo.getCollectionName(LeaveUsage.class)).estimatedDocumentCount();
+    }
+
+    private static Document when(Status status, Object value) {
+        return new Document("$cond", List.of(new Document("$eq", List.of("$status", status.name())), value, 0));
+    }
+
+    private static long number(Document d, String field) {
+        var n = d.get(field, Number.class);
+        return n == null ? 0 : n.longValue();
+    }
+}
@@ -1,13 +1,33 @@
 package com.digileave.digileave.Repositories;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
 import com.digileave.digileave.Models.Request;
+import com.digileave.digileave.Models.enums.Status;
 
-public interface RequestRepository extends MongoRepository<Request, String> {
+public interface RequestRepository extends MongoRepository<Request, String>, RequestRepositoryCustom {
     List<Request> findByUserId(String userId);
     List<Request> findByUserIdIn(List<String> userIds);
+
+    // # Keyset pages, newest first (ObjectId order == creation order)
+    List<Request> findByUserIdInOrderByIdDesc(List<String> userIds, Limit limit);
+    List<Request> findByUserIdInAndIdLessThanOrderByIdDesc(List<String> userIds, String id, Limit limit);
+
+    // # Cursor-backed streams, newest first - caller must close (try-with-resources)
+    Stream<Request> streamAllByOrderByIdDesc();
+    Stream<Request> streamByUserIdOrderByIdDesc(String userId);
+    Stream<Request> streamByUserIdInOrderByIdDesc(Collection<String> userIds);
+    Stream<Request> streamByStatusIn(Collection<Status> statuses);
+
+    // # Any request of the user in the given statuses intersecting [start, end] - served by user_status_range
+    @Query(value = "{ 'userId': ?0, 'status': { $in: ?1 }, 'startDate': { $lte: ?3 }, 'endDate': { $gte: ?2 } }", exists = true)
+    boolean existsOverlapping(String userId, Collection<Status> statuses, LocalDate start, LocalDate end);
 }
 
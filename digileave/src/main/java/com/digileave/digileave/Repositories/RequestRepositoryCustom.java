@@ -0,0 +1,107 @@
+package com.digileave.digileave.Repositories;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Limit;
+
+import com.digileave.digileave.Models.Request;
+import com.digileave.digileave.Models.enums.LeaveType;
+import com.digileave.digileave.Models.enums.Status;
+
+// # Conditional single-round-trip updates on requests
+public interface RequestRepositoryCustom {
+
+    /**
+     * Atomically moves a PENDING request to {@code status}. When {@code ownerIds} is not null
+     * the request must also belong to one of them (approver authorization in the same filter).
+     *
+     * @return the updated request, or empty if it doesn't exist, isn't PENDING or isn't allowed
+     */
+    Optional<Request> decideIfPending(String requestId, Collection<String> ownerIds,
+                                      Status status, String decidedByUserId, Instant decidedAt);
+
+    /**
+     * {@link #decideIfPending} for many already-authorized ids in one updateMany. Each call stamps
+     * what it moves with its own decisionBatch token, so a partial update can tell its ids apart.
+     *
+     * @return the ids this call actually moved (others were no longer PENDING)
+     */
+    Set<String> decideAllIfPending(Collection<String> requestIds, Status status, String decidedByUserId, Instant decidedAt);
+
+    /**
+     * Atomically moves the owner's own PENDING request to CANCELLED.
+     *
+     * @return the cancelled request, or empty if it doesn't exist, isn't theirs or isn't PENDING
+     */
+    Optional<Request> cancelIfPending(String requestId, String userId, Instant cancelledAt);
+
+    /**
+     * Compensation for {@link #decideIfPending} when the follow-up write fails outside a transaction.
+     */
+    void restorePending(String requestId, Status decidedStatus);
+
+    /**
+     * {@link #restorePending} for the ids a {@link #decideAllIfPending} moved, in one updateMany.
+     */
+    void restoreAllPending(Collection<String> requestIds, Status decidedStatus);
+
+    /**
+     * Sets workdaysCount per request id in one unordered bulk write.
+     *
+     * @return number of requests modified
+     */
+    long updateWorkdaysCounts(Map<String, Integer> workdaysById);
+
+    /**
+     * PENDING requests of {@code userIds} (everyone when null), newest first, with only the
+     * fields an inbox row needs.
+     */
+    List<Request> findPendingInbox(Collection<String> userIds, int limit);
+
+    /**
+     * Requests of {@code userIds} (everyone when null), newest first, before {@code beforeId}
+     * (from the newest when null). Only {@code fields} (plus {@code _id}) are read when not null.
+     */
+    List<Request> findPage(Collection<String> userIds, String beforeId, Limit limit, Collection<String> fields);
+
+    /**
+     * Number of PENDING requests of {@code userIds} (everyone when null), answered from the index.
+     */
+    long countPendingInbox(Collection<String> userIds);
+
+    /**
+     * Sets decision_seen on the owner's request.
+     *
+     * @return the request as it was BEFORE the update, or empty if it doesn't exist or isn't the owner's
+     */
+    Optional<Request> markDecisionSeen(String requestId, String ownerId);
+
+    /**
+     * Sets decision_seen on all of the owner's unseen requests in one updateMany.
+     *
+     * @return number of requests flipped
+     */
+    long markAllDecisionsSeen(String ownerId);
+
+    /**
+     * userId -> number of requests with decision_seen == false.
+     */
+    Map<String, Integer> countUnseenDecisionsByUser();
+
+    // Export filter - every null field means "no restriction"
+    record ExportFilter(Collection<String> userIds, LocalDate from, LocalDate to,
+                        Collection<LeaveType> types, Collection<Status> statuses) {}
+
+    /**
+     * Cursor-backed stream of requests overlapping [from, to] that match the filter, by startDate then id.
+     * Caller must close it.
+     */
+    Stream<Request> streamForExport(ExportFilter filter);
+}
@@ -0,0 +1,187 @@
+package com.digileave.digileave.Repositories;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.digileave.digileave.Models.Request;
+import com.digileave.digileave.Models.enums.Status;
+
+public class RequestRepositoryImpl implements RequestRepositoryCustom {
+
+    private final MongoTemplate mongo;
+
+    public RequestRepositoryImpl(MongoTemplate mongo) {
+        this.mongo = mongo;
+    }
+
+    @Override
+    public Optional<Request> decideIfPending(String requestId, Collection<String> ownerIds,
+                                             Status status, String decidedByUserId, Instant decidedAt) {
+        var criteria = Criteria.where("_id").is(requestId).and("status").is(Status.PENDING);
+        if (ownerIds != null) criteria.and("userId").in(ownerIds);
+
+        var update = new Update()
+                .set("status", status)
+                .set("decision_seen", false)
+                .set("decidedByUserId", decidedByUserId)
+                .set("decidedAt", decidedAt);
+
+        return Optional.ofNullable(mongo.findAndModify(new Query(criteria), update,
+                FindAndModifyOptions.options().returnNew(true), Request.class));
+    }
+
+    @Override
+    public Set<String> decideAllIfPending(Collection<String> requestIds, Status status,
+                                          String decidedByUserId, Instant decidedAt) {
+        // Unique per call - two batches from the same approver can share a decidedAt millisecond
+        var batch = new ObjectId().toHexString();
+        var query = new Query(Criteria.where("_id").in(requestIds).and("status").is(Status.PENDING));
+        var update = new Update()
+                .set("status", status)
+                .set("decision_seen", false)
+                .set("decidedByUserId", decidedByUserId)
+                .set("decidedAt", decidedAt)
+                .set("decisionBatch", batch);
+        long modified = mongo.updateMulti(query, update, Request.class).getModifiedCount();
+        if (modified == requestIds.size()) return Set.copyOf(requestIds);
+
+        // Lost some races - ours are the ones carrying this call's batch token
+        var ours = new Query(Criteria.where("_id").in(requestIds).and("decisionBatch").is(batch));
+        ours.fields().include("_id");
+        return mongo.find(ours, Request.class).stream().map(Request::getId).collect(Collectors.toSet());
+    }
+
+    @Override
+    public Optional<Request> cancelIfPending(String requestId, String userId, Instant cancelledAt) {
+        var criteria = Criteria.where("_id").is(requestId).and("userId").is(userId).and("status").is(Status.PENDING);
+        var update = new Update()
+                .set("status", Status.CANCELLED)
+                .set("decidedAt", cancelledAt);
+        return Optional.ofNullable(mongo.findAndModify(new Query(criteria), update,
+                FindAndModifyOptions.options().returnNew(true), Request.class));
+    }
+
+    @Override
+    public void restorePending(String requestId, Status decidedStatus) {
+        var query = new Query(Criteria.where("_id").is(requestId).and("status").is(decidedStatus));
+        var update = new Update()
+                .set("status", Status.PENDING)
+                .set("decision_seen", true)
+                .unset("decidedByUserId")
+                .unset("decidedAt")
+                .unset("decisionBatch");
+        mongo.updateFirst(query, update, Request.class);
+    }
+
+    @Override
+    public void restoreAllPending(Collection<String> requestIds, Status decidedStatus) {
+        if (requestIds.isEmpty()) return;
+        var query = new Query(Criteria.where("_id").in(requestIds).and("status").is(decidedStatus));
+        var update = new Update()
+                .set("status", Status.PENDING)
+                .set("decision_seen", true)
+                .unset("decidedByUserId")
+                .unset("decidedAt")
+                .unset("decisionBatch");
+        mongo.updateMulti(query, update, Request.class);
+    }
+
+    @Override
+    public long updateWorkdaysCounts(Map<String, Integer> workdaysById) {
+        if (workdaysById.isEmpty()) return 0;
+        var bulk = mongo.bulkOps(BulkOperations.BulkMode.UNORDERED, Request.class);
+        workdaysById.forEach((id, workdays) -> bulk.updateOne(
+                new Query(Criteria.where("_id").is(id)),
+                new Update().set("workdaysCount", workdays)));
+        return bulk.execute().getModifiedCount();
+    }
+
+    @Override
+    public List<Request> findPendingInbox(Collection<String> userIds, int limit) {
+        return mongo.find(inboxQuery(userIds).limit(limit), Request.class);
+    }
+
+    @Override
+    public List<Request> findPage(Collection<String> userIds, String beforeId, Limit limit, Collection<String> fields) {
+        var criteria = new Criteria();
+        if (userIds != null) criteria.and("userId").in(userIds);
+        if (beforeId != null) criteria.and("_id").lt(beforeId);
+        var query = new Query(criteria).with(Sort.by(Sort.Direction.DESC, "_id")).limit(limit);
+        if (fields != null) query.fields().include(fields.toArray(String[]::new));
+        return mongo.find(query, Request.class);
+    }
+
+    @Override
+    public long countPendingInbox(Collection<String> userIds) {
+        return mongo.count(new Query(inboxCriteria(userIds)), Request.class);
+    }
+
+    // # Equality/$in on userId + status, sort on createdAt -> merged IXSCANs on user_status_created, no in-memory sort
+    public static Query inboxQuery(Collection<String> userIds) {
+        var query = new Query(inboxCriteria(userIds)).with(Sort.by(Sort.Direction.DESC, "createdAt"));
+        query.fields().include("userId", "startDate", "endDate", "workdaysCount", "status", "type", "comment", "createdAt");
+        return query;
+    }
+
+    private static Criteria inboxCriteria(Collection<String> userIds) {
+        var criteria = userIds == null ? new Criteria() : Criteria.where("userId").in(userIds);
+        return criteria.and("status").is(Status.PENDING);
+    }
+
+    @Override
+    public Optional<Request> markDecisionSeen(String requestId, String ownerId) {
+        var query = new Query(Criteria.where("_id").is(requestId).and("userId").is(ownerId));
+        return Optional.ofNullable(mongo.findAndModify(query, new Update().set("decision_seen", true),
+                FindAndModifyOptions.options().returnNew(false), Request.class));
+    }
+
+    @Override
+    public long markAllDecisionsSeen(String ownerId) {
+        var query = new Query(Criteria.where("userId").is(ownerId).and("decision_seen").is(false));
+        return mongo.updateMulti(query, new Update().set("decision_seen", true), Request.class).getModifiedCount();
+    }
+
+    @Override
+    public Map<String, Integer> countUnseenDecisionsByUser() {
+        var aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("decision_seen").is(false)),
+                Aggregation.group("userId").count().as("n"));
+        Map<String, Integer> counts = new HashMap<>();
+        mongo.aggregate(aggregation, Request.class, Document.class)
+                .forEach(d -> counts.put(d.getString("_id"), d.getInteger("n")));
+        return counts;
+    }
+
+    @Override
+    public Stream<Request> streamForExport(ExportFilter filter) {
+        var criteria = new Criteria();
+        if (filter.userIds() != null) criteria.and("userId").in(filter.userIds());
+        if (filter.to() != null) criteria.and("startDate").lte(filter.to());
+        if (filter.from() != null) criteria.and("endDate").gte(filter.from());
+        if (filter.types() != null) criteria.and("type").in(filter.types());
+        if (filter.statuses() != null) criteria.and("status").in(filter.statuses());
+
+        // Served in order by start_id - no blocking sort however many rows match
+        var query = new Query(criteria).with(Sort.by("startDate", "_id")).cursorBatchSize(500);
+        return mongo.stream(query, Request.class);
+    }
+}
@@ -0,0 +1,20 @@
+package com.digileave.digileave.Repositories;
+
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+// # Spring Data writes LocalDate as midnight in the JVM's default zone, not UTC (Jsr310Converters).
+// ! Date operators in aggregations ($dateToString & co.) must use the same zone, or they land on the day before
+final class StoredDates {
+
+    private StoredDates() {}
+
+    // Olson name or "+hh:mm" - the forms $dateToString's timezone accepts
+    static String timezone() {
+        ZoneId zone = ZoneId.systemDefault().normalized();
+        if (zone instanceof ZoneOffset offset) {
+            return offset.getTotalSeconds() == 0 ? "UTC" : offset.getId();
+        }
+        return zone.getId();
+    }
+}
@@ -1,12 +1,16 @@
 package com.digileave.digileave.Repositories;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
 
 import com.digileave.digileave.Models.User;
+import com.digileave.digileave.Models.enums.Role;
 
-public interface UserRepository extends MongoRepository<User, String> {
+public interface UserRepository extends MongoRepository<User, String>, UserRepositoryCustom {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
-}
\ No newline at end of file
+    List<User> findByRoleIn(Collection<Role> roles);
+}
@@ -0,0 +1,94 @@
+package com.digileave.digileave.Repositories;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Limit;
+
+import com.digileave.digileave.DTOs.UserPatchDto;
+import com.digileave.digileave.Models.User;
+
+// # Server-side (in-database) updates that don't fit derived queries
+public interface UserRepositoryCustom {
+
+    /**
+     * Adds the yearly contract leave days (plus seniority bonus) to every user not yet
+     * accrued for {@code year}, capped at {@code maxBalance}. Runs in chunks of {@code chunkSize}
+     * ids; each user is stamped with the year in the same update, so a re-run resumes where
+     * a previous one stopped and never accrues twice.
+     *
+     * @return number of users updated by this run
+     */
+    long accrueYearlyContractLeaveDays(int year, int maxBalance, int chunkSize);
+
+    /**
+     * Adds one leave day to every user whose anniversary key is in {@code monthDays}
+     * and whose balance is still below {@code maxBalance}.
+     *
+     * @return number of users updated
+     */
+    long addAnniversaryDay(Collection<String> monthDays, int maxBalance);
+
+    /**
+     * Fills the derived anniversary key for users saved before it existed.
+     *
+     * @return number of users updated
+     */
+    long backfillAnniversaryMonthDay();
+
+    /**
+     * One {@code $inc} for a decision: balance by {@code leaveDaysDelta}, unreadDecisions by one.
+     *
+     * @return false if the user doesn't exist
+     */
+    boolean recordDecision(String userId, int leaveDaysDelta);
+
+    /**
+     * Adds {@code delta} to unreadDecisions, never going below 0 - users whose decisions predate the
+     * counter mark them seen without ever having been counted up.
+     */
+    void incrementUnreadDecisions(String userId, int delta);
+
+    /**
+     * Reads only the unreadDecisions field; 0 for unknown users.
+     */
+    int unreadDecisionsOf(String userId);
+
+    /**
+     * Overwrites every user's unreadDecisions - users missing from {@code counts} get 0.
+     */
+    void resetUnreadDecisions(Map<String, Integer> counts);
+
+    // Per-owner aggregate of a batch of decisions
+    record DecisionTotals(int leaveDaysDelta, int decisions) {
+        public DecisionTotals plus(DecisionTotals other) {
+            return new DecisionTotals(leaveDaysDelta + other.leaveDaysDelta, decisions + other.decisions);
+        }
+
+        // Undoes an already applied batch (compensation without transactions)
+        public DecisionTotals negated() {
+            return new DecisionTotals(-leaveDaysDelta, -decisions);
+        }
+    }
+
+    /**
+     * {@link #recordDecision} for many owners in one unordered bulk write - one {@code $inc} per owner.
+     */
+    void recordDecisions(Map<String, DecisionTotals> totalsByUser);
+
+    // inserted / updated counts plus per-row failures keyed by index into the batch
+    record ImportResult(long inserted, long updated, Map<Integer, String> errors) {}
+
+    /**
+     * Upserts one user per row by (already normalized) email in one unordered bulk write.
+     * Only non-null fields are written; new users get the entity defaults.
+     */
+    ImportResult upsertByEmail(List<UserPatchDto> rows);
+
+    /**
+     * Users in {@code _id} order after {@code afterId} (from the start when null), restricted to
+     * {@code ids} when not null. Only {@code fields} (plus {@code _id}) are read when not null.
+     */
+    List<User> findPage(Collection<String> ids, String afterId, Limit limit, Collection<String> fields);
+}
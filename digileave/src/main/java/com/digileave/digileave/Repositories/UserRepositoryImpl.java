@@ -0,0 +1,198 @@
+package com.digileave.digileave.Repositories;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject;
+
+import com.digileave.digileave.DTOs.UserPatchDto;
+import com.digileave.digileave.Models.User;
+
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    private final MongoTemplate mongo;
+
+    public UserRepositoryImpl(MongoTemplate mongo) {
+        this.mongo = mongo;
+    }
+
+    @Override
+    public long accrueYearlyContractLeaveDays(int year, int maxBalance, int chunkSize) {
+        var accrual = yearlyAccrualUpdate(year, maxBalance);
+        long processed = 0;
+        String lastId = null;
+
+        while (true) {
+            // # Next chunk of pending ids - only _id leaves the database
+            var idQuery = new Query(pendingAccrual(year))
+                    .with(Sort.by(Sort.Direction.ASC, "_id"))
+                    .limit(chunkSize);
+            if (lastId != null) idQuery.addCriteria(Criteria.where("_id").gt(new ObjectId(lastId)));
+            idQuery.fields().include("_id");
+
+            List<String> ids = mongo.find(idQuery, Document.class, mongo.getCollectionName(User.class))
+                    .stream()
+                    .map(d -> d.getObjectId("_id").toHexString())
+                    .toList();
+            if (ids.isEmpty()) break;
+
+            // # Re-check the year marker so a concurrent run can't double-accrue
+            var chunk = new Query(pendingAccrual(year).and("_id").in(ids));
+            processed += mongo.updateMulti(chunk, accrual, User.class).getModifiedCount();
+
+            lastId = ids.get(ids.size() - 1);
+            if (ids.size() < chunkSize) break;
+        }
+        return processed;
+    }
+
+    @Override
+    public long addAnniversaryDay(Collection<String> monthDays, int maxBalance) {
+        var query = new Query(Criteria.where("anniversaryMonthDay").in(monthDays)
+                .and("availableLeaveDays").lt(maxBalance));
+        return mongo.updateMulti(query, new Update().inc("availableLeaveDays", 1), User.class).getModifiedCount();
+    }
+
+    @Override
+    public long backfillAnniversaryMonthDay() {
+        var query = new Query(Criteria.where("anniversaryMonthDay").is(null)
+                .and("workingSince").type(JsonSchemaObject.Type.DATE));
+        var key = new Document("$dateToString", new Document("format", "%m-%d")
+                .append("date", "$workingSince")
+                .append("timezone", StoredDates.timezone()));
+        var update = AggregationUpdate.from(List.of(ctx -> new Document("$set",
+                new Document("anniversaryMonthDay", key))));
+        return mongo.updateMulti(query, update, User.class).getModifiedCount();
+    }
+
+    @Override
+    public boolean recordDecision(String userId, int leaveDaysDelta) {
+        var update = new Update().inc("unreadDecisions", 1);
+        if (leaveDaysDelta != 0) update.inc("availableLeaveDays", leaveDaysDelta);
+        return mongo.updateFirst(new Query(Criteria.where("_id").is(userId)), update, User.class).getMatchedCount() > 0;
+    }
+
+    @Override
+    public void recordDecisions(Map<String, DecisionTotals> totalsByUser) {
+        if (totalsByUser.isEmpty()) return;
+        var bulk = mongo.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+        totalsByUser.forEach((userId, t) -> bulk.updateOne(new Query(Criteria.where("_id").is(userId)),
+                new Update().inc("availableLeaveDays", t.leaveDaysDelta()).inc("unreadDecisions", t.decisions())));
+        bulk.execute();
+    }
+
+    @Override
+    public void incrementUnreadDecisions(String userId, int delta) {
+        // Pipeline instead of $inc so the counter clamps at 0 in the same write
+        var counted = new Document("$add", List.of(new Document("$ifNull", List.of("$unreadDecisions", 0)), delta));
+        var update = AggregationUpdate.from(List.of(ctx -> new Document("$set",
+                new Document("unreadDecisions", new Document("$max", List.of(0, counted))))));
+        mongo.updateFirst(new Query(Criteria.where("_id").is(userId)), update, User.class);
+    }
+
+    @Override
+    public int unreadDecisionsOf(String userId) {
+        var query = new Query(Criteria.where("_id").is(userId));
+        query.fields().include("unreadDecisions");
+        var user = mongo.findOne(query, User.class);
+        return user == null ? 0 : Math.max(0, user.getUnreadDecisions());
+    }
+
+    @Override
+    public void resetUnreadDecisions(Map<String, Integer> counts) {
+        var bulk = mongo.bulkOps(BulkOperations.BulkMode.ORDERED, User.class);
+        bulk.updateMulti(new Query(), new Update().set("unreadDecisions", 0));
+        counts.forEach((userId, n) -> bulk.updateOne(
+                new Query(Criteria.where("_id").is(userId)), new Update().set("unreadDecisions", n)));
+        bulk.execute();
+    }
+
+    @Override
+    public ImportResult upsertByEmail(List<UserPatchDto> rows) {
+        if (rows.isEmpty()) return new ImportResult(0, 0, Map.of());
+        var bulk = mongo.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+        for (var row : rows) bulk.upsert(new Query(Criteria.where("email").is(row.email())), importUpdate(row));
+
+        try {
+            var result = bulk.execute();
+            return new ImportResult(result.getUpserts().size(), result.getMatchedCount(), Map.of());
+        } catch (BulkOperationException e) {
+            // Unordered - everything else in the batch was still applied
+            Map<Integer, String> errors = new HashMap<>();
+            e.getErrors().forEach(err -> errors.put(err.getIndex(), err.getMessage()));
+            return new ImportResult(e.getResult().getUpserts().size(), e.getResult().getMatchedCount(), errors);
+        }
+    }
+
+    // # $set what the row has, $setOnInsert the entity defaults for what it doesn't
+    private static Update importUpdate(UserPatchDto row) {
+        var defaults = new User();
+        var update = new Update();
+        if (row.fullName() != null) update.set("fullName", row.fullName());
+        else update.setOnInsert("fullName", row.email().substring(0, row.email().indexOf('@')));
+        if (row.role() != null) update.set("role", row.role());
+        else update.setOnInsert("role", defaults.getRole());
+        if (row.availableLeaveDays() != null) update.set("availableLeaveDays", row.availableLeaveDays());
+        else update.setOnInsert("availableLeaveDays", defaults.getAvailableLeaveDays());
+        if (row.contractLeaveDays() != null) update.set("contractLeaveDays", row.contractLeaveDays());
+        else update.setOnInsert("contractLeaveDays", defaults.getContractLeaveDays());
+        if (row.workingSince() != null) {
+            update.set("workingSince", row.workingSince());
+            update.set("anniversaryMonthDay", User.anniversaryKey(row.workingSince()));
+        }
+        if (row.assigneeIds() != null) update.set("assigneeIds", row.assigneeIds());
+        else update.setOnInsert("assigneeIds", List.of());
+        update.setOnInsert("unreadDecisions", 0);
+        return update;
+    }
+
+    @Override
+    public List<User> findPage(Collection<String> ids, String afterId, Limit limit, Collection<String> fields) {
+        var criteria = new Criteria();
+        if (ids != null || afterId != null) {
+            var id = criteria.and("_id");
+            if (ids != null) id.in(ids);
+            if (afterId != null) id.gt(afterId);
+        }
+        var query = new Query(criteria).with(Sort.by(Sort.Direction.ASC, "_id")).limit(limit);
+        if (fields != null) query.fields().include(fields.toArray(String[]::new));
+        return mongo.find(query, User.class);
+    }
+
+    private static Criteria pendingAccrual(int year) {
+        return Criteria.where("lastContractAccrualYear").ne(year);
+    }
+
+    // # availableLeaveDays = min(max, balance + contract + seniority), seniority = years since start - 1
+    private static AggregationUpdate yearlyAccrualUpdate(int year, int maxBalance) {
+        var seniority = new Document("$cond", List.of(
+                new Document("$ne", List.of(new Document("$type", "$workingSince"), "date")),
+                0,
+                new Document("$max", List.of(0,
+                        new Document("$subtract", List.of(year - 1, new Document("$year",
+                                new Document("date", "$workingSince").append("timezone", StoredDates.timezone()))))))));
+
+        var newBalance = new Document("$min", List.of(maxBalance,
+                new Document("$add", List.of(
+                        new Document("$ifNull", List.of("$availableLeaveDays", 0)),
+                        new Document("$ifNull", List.of("$contractLeaveDays", 0)),
+                        seniority))));
+
+        return AggregationUpdate.from(List.of(ctx -> new Document("$set",
+                new Document("availableLeaveDays", newBalance)
+                        .append("lastContractAccrualYear", year))));
+    }
+}
@@ -0,0 +1,174 @@
+package com.digileave.digileave.Security;
+
+import com.digileave.digileave.Config.MongoLatencyTracker;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.core.env.Environment;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// # Admission control for write endpoints - per-user token buckets, a global in-flight cap, latency shedding
+// ! In-process, like the other indexes - with several instances each one enforces its own limits
+@Component
+public class AdmissionControl {
+
+  public enum Outcome { ADMITTED, THROTTLED, SHED_CONCURRENCY, SHED_LATENCY }
+
+  public record Decision(Outcome outcome, long retryAfterSeconds) {
+    static final Decision ADMITTED = new Decision(Outcome.ADMITTED, 0);
+    public boolean admitted() { return outcome == Outcome.ADMITTED; }
+  }
+
+  // Defaults; digileave.admission.<name>.burst / .per-second override them
+  private record RouteSpec(String name, String method, String path, int burst, double perSecond) {}
+
+  private static final List<RouteSpec> ROUTES = List.of(
+      new RouteSpec("create-request", "POST", "/requests", 5, 0.2),
+      new RouteSpec("decide", "PATCH", "/approver/request/{id}", 30, 2),
+      new RouteSpec("decide-bulk", "PATCH", "/approver/requests/decision", 5, 0.5),
+      new RouteSpec("force-accrual", "POST", "/admin/force-contract-leave-days-addition", 2, 1 / 60.0));
+
+  private static final long MAX_USERS_PER_ROUTE = 100_000;
+
+  /**
+   * One route's limits. Each user's bucket is a single AtomicLong holding the bucket's
+   * "theoretical arrival time" (GCRA): the instant it would be empty again if nothing else came
+   * in. A request pushes it forward by one interval and is let through while it stays within
+   * {@code burst} intervals of now - the same behaviour as a refilling token bucket, but updated
+   * with one CAS and no lock. Buckets sit in a Caffeine map (striped internally) and expire once
+   * they would have refilled completely, so dropping one never changes a decision.
+   */
+  public static final class Route {
+
+    private final String name;
+    private final String method;
+    private final PathPattern pattern;
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final Cache<String, AtomicLong> buckets;
+    private final Map<Outcome, Counter> counters = new EnumMap<>(Outcome.class);
+
+    Route(RouteSpec spec, int burst, double perSecond, MeterRegistry meterRegistry) {
+      if (burst < 1 || !(perSecond > 0)) {
+        throw new IllegalArgumentException("admission route " + spec.name() + " needs burst >= 1 and per-second > 0");
+      }
+      this.name = spec.name();
+      this.method = spec.method();
+      this.pattern = PathPatternParser.defaultInstance.parse(spec.path());
+      this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / perSecond));
+      this.burstNanos = intervalNanos * burst;
+      this.buckets = Caffeine.newBuilder()
+          .maximumSize(MAX_USERS_PER_ROUTE)
+          .expireAfterAccess(Duration.ofNanos(burstNanos))
+          .build();
+      for (Outcome outcome : Outcome.values()) {
+        counters.put(outcome, Counter.builder("admission.requests")
+            .description("Write requests seen by admission control, by route and outcome")
+            .tag("route", name)
+            .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+            .register(meterRegistry));
+      }
+    }
+
+    public String name() { return name; }
+
+    boolean matches(String method, PathContainer path) {
+      return this.method.equals(method) && pattern.matches(path);
+    }
+
+    // # 0 when a token was taken, otherwise nanos until the next one
+    long tryAcquire(String subject, long now) {
+      AtomicLong tat = buckets.get(subject, s -> new AtomicLong(now));
+      while (true) {
+        long current = tat.get();
+        long next = Math.max(current, now) + intervalNanos;
+        long over = next - now - burstNanos;
+        if (over > 0) return over;
+        if (tat.compareAndSet(current, next)) return 0;
+      }
+    }
+
+    void count(Outcome outcome) {
+      counters.get(outcome).increment();
+    }
+  }
+
+  private final List<Route> routes;
+  private final Semaphore inFlight;
+  private final MongoLatencyTracker mongoLatency;
+  private final double latencyThresholdMs;
+  private final boolean enabled;
+
+  public AdmissionControl(Environment env, MongoLatencyTracker mongoLatency, MeterRegistry meterRegistry) {
+    this.enabled = env.getProperty("digileave.admission.enabled", Boolean.class, true);
+    this.latencyThresholdMs = env.getProperty("digileave.admission.mongo-latency-threshold-ms", Double.class, 250.0);
+    int maxInFlight = env.getProperty("digileave.admission.max-concurrent-writes", Integer.class, 32);
+    this.inFlight = new Semaphore(maxInFlight);
+    this.mongoLatency = mongoLatency;
+    this.routes = ROUTES.stream()
+        .map(spec -> new Route(spec,
+            env.getProperty("digileave.admission." + spec.name() + ".burst", Integer.class, spec.burst()),
+            env.getProperty("digileave.admission." + spec.name() + ".per-second", Double.class, spec.perSecond()),
+            meterRegistry))
+        .toList();
+
+    Gauge.builder("admission.inflight", inFlight, s -> maxInFlight - s.availablePermits())
+        .description("Limited write requests currently being handled")
+        .register(meterRegistry);
+  }
+
+  // # Null when the request isn't a limited write (or admission control is off)
+  public Route match(String method, String requestUri) {
+    if (!enabled) return null;
+    PathContainer path = PathContainer.parsePath(requestUri);
+    for (Route route : routes) {
+      if (route.matches(method, path)) return route;
+    }
+    return null;
+  }
+
+  /**
+   * Cheapest and most global check first: a struggling Mongo sheds every limited write (503),
+   * then the in-flight cap (503), then the user's own bucket (429). A shed request never spends
+   * the user's token, so retrying after a 503 isn't answered with a 429. An admitted decision
+   * holds an in-flight permit - {@link #release()} it when the request is done.
+   */
+  public Decision admit(Route route, String subject) {
+    if (mongoLatency.currentMillis() > latencyThresholdMs) {
+      route.count(Outcome.SHED_LATENCY);
+      return new Decision(Outcome.SHED_LATENCY, 1);
+    }
+    if (!inFlight.tryAcquire()) {
+      route.count(Outcome.SHED_CONCURRENCY);
+      return new Decision(Outcome.SHED_CONCURRENCY, 1);
+    }
+    long waitNanos = route.tryAcquire(subject, System.nanoTime());
+    if (waitNanos > 0) {
+      inFlight.release();
+      route.count(Outcome.THROTTLED);
+      return new Decision(Outcome.THROTTLED, Math.max(1, (waitNanos + 999_999_999) / 1_000_000_000));
+    }
+    route.count(Outcome.ADMITTED);
+    return Decision.ADMITTED;
+  }
+
+  public void release() {
+    inFlight.release();
+  }
+}
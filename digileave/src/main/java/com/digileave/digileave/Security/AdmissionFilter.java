@@ -0,0 +1,61 @@
+package com.digileave.digileave.Security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// # Runs after JwtAuthFilter, so limits are keyed by the JWT subject
+// ! Not a bean on purpose - Boot would also register it as a servlet filter, ahead of security,
+// ! where there is no subject yet and OncePerRequestFilter would then skip the real pass
+public class AdmissionFilter extends OncePerRequestFilter {
+
+  private final AdmissionControl admission;
+
+  public AdmissionFilter(AdmissionControl admission) {
+    this.admission = admission;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest req, HttpServletResponse res, FilterChain chain)
+      throws ServletException, IOException {
+
+    AdmissionControl.Route route = admission.match(req.getMethod(), req.getRequestURI());
+    Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+
+    // # Not a limited write, or anonymous - authorization answers those with 401 anyway
+    if (route == null || auth == null || !auth.isAuthenticated() || !(auth.getPrincipal() instanceof String subject)) {
+      chain.doFilter(req, res);
+      return;
+    }
+
+    AdmissionControl.Decision decision = admission.admit(route, subject);
+    if (!decision.admitted()) {
+      reject(res, decision);
+      return;
+    }
+    try {
+      chain.doFilter(req, res);
+    } finally {
+      admission.release();
+    }
+  }
+
+  // # 429 / 503 with Retry-After, same JSON shape as the 401 / 403 handlers
+  private static void reject(HttpServletResponse res, AdmissionControl.Decision decision) throws IOException {
+    boolean throttled = decision.outcome() == AdmissionControl.Outcome.THROTTLED;
+    res.setStatus(throttled ? HttpStatus.TOO_MANY_REQUESTS.value() : HttpStatus.SERVICE_UNAVAILABLE.value());
+    res.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(decision.retryAfterSeconds()));
+    res.setContentType("application/json");
+    res.getWriter().write(throttled ? "{\"error\":\"too_many_requests\"}" : "{\"error\":\"overloaded\"}");
+    res.getWriter().flush();
+  }
+}
@@ -0,0 +1,90 @@
+package com.digileave.digileave.Security;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+// # Bounded ring buffer of access-log lines, written to stdout by one background thread
+@Component
+public class AsyncAccessLog {
+
+    private static final int CAPACITY = 8192;
+    private static final int BATCH = 256;
+    private static final DateTimeFormatter TIMESTAMP =
+            DateTimeFormatter.ofPattern("HH:mm:ss dd/MM/yyyy").withZone(ZoneId.of("Europe/Sofia"));
+
+    // Captured on the request thread; formatting happens on the writer thread
+    private record Line(String method, String uri, int status, long nanos, long epochMillis) {}
+
+    private final BlockingQueue<Line> queue = new ArrayBlockingQueue<>(CAPACITY);
+    private final Counter dropped;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public AsyncAccessLog(MeterRegistry meterRegistry) {
+        this.dropped = Counter.builder("http.access.log.dropped")
+                .description("Access log lines dropped because the buffer was full")
+                .register(meterRegistry);
+        this.writer = new Thread(this::drain, "access-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    // # Never blocks the request thread - a full buffer drops the line
+    public void log(String method, String uri, int status, long nanos) {
+        if (!queue.offer(new Line(method, uri, status, nanos, System.currentTimeMillis()))) {
+            dropped.increment();
+        }
+    }
+
+    private void drain() {
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 16 * 1024);
+        List<Line> batch = new ArrayList<>(BATCH);
+        StringBuilder sb = new StringBuilder(128);
+        while (running || !queue.isEmpty()) {
+            try {
+                Line first = queue.poll(250, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                queue.drainTo(batch, BATCH - 1);
+                for (Line line : batch) {
+                    sb.setLength(0);
+                    sb.append(line.method()).append(' ').append(line.uri())
+                      .append(" - ").append(line.status())
+                      .append(' ').append(TimeUnit.NANOSECONDS.toMillis(line.nanos())).append(" ms - ");
+                    TIMESTAMP.formatTo(Instant.ofEpochMilli(line.epochMillis()), sb);
+                    sb.append(" \n");
+                    out.append(sb);
+                }
+                out.flush();
+            } catch (InterruptedException e) {
+                running = false;
+            } catch (IOException ignored) {
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(2));
+    }
+}
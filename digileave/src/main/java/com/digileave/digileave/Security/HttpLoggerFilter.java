@@ -1,9 +1,6 @@
 package com.digileave.digileave.Security;
 
 import java.io.IOException;
-import java.time.ZoneId;
-import java.time.ZonedDateTime;
-import java.time.format.DateTimeFormatter;
 
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -13,25 +10,25 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
+// # Per-route latency histograms come from Actuator's http.server.requests (see application.properties)
 @Component
 public class HttpLoggerFilter extends OncePerRequestFilter {
+
+    private final AsyncAccessLog accessLog;
+
+    public HttpLoggerFilter(AsyncAccessLog accessLog) {
+        this.accessLog = accessLog;
+    }
     
     @Override
     protected void doFilterInternal(HttpServletRequest req , HttpServletResponse res , FilterChain chain)
     throws ServletException , IOException{
-        long t0 = System.currentTimeMillis();
-        String method = req.getMethod();
-        String uri = req.getRequestURI();
-        
+        long t0 = System.nanoTime();
 
         try{
             chain.doFilter(req , res);
         } finally {
-            long ms = System.currentTimeMillis() - t0;
-            int status = res.getStatus();
-            String timeStamp = ZonedDateTime.now(ZoneId.of("Europe/Sofia")).format(DateTimeFormatter.ofPattern("HH:mm:ss dd/MM/yyyy"));
-
-            System.out.printf("%s %s - %d %d ms - %s \n", method , uri , status , ms , timeStamp);
+            accessLog.log(req.getMethod(), req.getRequestURI(), res.getStatus(), System.nanoTime() - t0);
         }
     }
 }
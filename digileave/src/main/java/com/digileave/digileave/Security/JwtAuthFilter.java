@@ -1,10 +1,5 @@
 package com.digileave.digileave.Security;
 
-import com.digileave.digileave.Models.enums.Role;
-import com.digileave.digileave.Services.JwtService;
-
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jws;
 import io.jsonwebtoken.JwtException;
 
 import jakarta.servlet.FilterChain;
@@ -12,19 +7,16 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.List;
 
 public class JwtAuthFilter extends OncePerRequestFilter {
 
-  private final JwtService jwt;
-  public JwtAuthFilter(JwtService jwt) {
-    this.jwt = jwt;
+  private final VerifiedTokenCache tokens;
+  public JwtAuthFilter(VerifiedTokenCache tokens) {
+    this.tokens = tokens;
   }
 
     @Override
@@ -45,19 +37,8 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         // # When Token Available 
         if (token != null) {
             try {
-                // # Extract Info from JWT Body
-                Jws<Claims> jws = jwt.parseJwtToken(token);
-                Claims claims = jws.getBody();
-
-                String userId = claims.getSubject();
-                String email  = claims.get("email", String.class);
-                Role   role   = Role.valueOf(claims.get("role", String.class));
-                
-                // # Set Authentication
-                var authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
-                var authentication = new UsernamePasswordAuthenticationToken(userId, null, authorities);
-                authentication.setDetails(email);
-                // System.out.println("JwtAuthFilter: header = " + req.getHeader("Authorization"));
+                // # Verified Authentication (cached per token until it expires)
+                var authentication = tokens.authenticate(token);
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
             } catch (JwtException ignored) {}
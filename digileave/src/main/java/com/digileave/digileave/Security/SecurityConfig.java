@@ -3,6 +3,7 @@ package com.digileave.digileave.Security;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 
@@ -22,9 +23,10 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
-import com.digileave.digileave.Services.JwtService;
+import com.digileave.digileave.DTOs.PageCursor;
 import com.digileave.digileave.Repositories.UserRepository;
 
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
@@ -40,18 +42,21 @@ public class SecurityConfig {
   private static final String PROD_FRONTEND = "https://digileave.vercel.app";
   
   private final HttpLoggerFilter httpLoggerFilter;
-  private final JwtService jwtService;
+  private final VerifiedTokenCache verifiedTokenCache;
+  private final AdmissionControl admissionControl;
 
-  public SecurityConfig(JwtService jwtService, HttpLoggerFilter httpLoggerFilter, UserRepository users) {
+  public SecurityConfig(VerifiedTokenCache verifiedTokenCache, HttpLoggerFilter httpLoggerFilter, UserRepository users,
+                        AdmissionControl admissionControl) {
     this.httpLoggerFilter = httpLoggerFilter;
-    this.jwtService = jwtService;
+    this.verifiedTokenCache = verifiedTokenCache;
+    this.admissionControl = admissionControl;
   }
   
 
   // # Register JwtAuthFilter as a bean
   @Bean
   public JwtAuthFilter jwtAuthFilter() {
-    return new JwtAuthFilter(jwtService);
+    return new JwtAuthFilter(verifiedTokenCache);
   }
 
   // # Security Pipeline Setup
@@ -67,8 +72,11 @@ public class SecurityConfig {
 
       .authorizeHttpRequests(auth -> auth
         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+        // Async re-dispatch of already-authorized streaming responses
+        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
         .requestMatchers("/", "/health", "/actuator/health",
                          "/oauth2/**", "/login/**", "/auth/jwt").permitAll()
+        .requestMatchers("/actuator/**").hasRole("ADMIN")
         .anyRequest().authenticated()
       )
       .exceptionHandling(e -> e
@@ -81,7 +89,10 @@ public class SecurityConfig {
       )
 
       // # JWT Filter
-      .addFilterBefore(jwtAuthFilter(), UsernamePasswordAuthenticationFilter.class);
+      .addFilterBefore(jwtAuthFilter(), UsernamePasswordAuthenticationFilter.class)
+
+      // # Per-user rate limits & load shedding on write endpoints (needs the JWT subject)
+      .addFilterAfter(new AdmissionFilter(admissionControl), UsernamePasswordAuthenticationFilter.class);
 
     return http.build();
   }
@@ -93,6 +104,7 @@ public class SecurityConfig {
     cfg.setAllowedOrigins(List.of(DEV_FRONTEND, PROD_FRONTEND));
     cfg.setAllowedMethods(List.of("GET","POST","PUT","PATCH","DELETE","OPTIONS"));
     cfg.setAllowedHeaders(List.of("Content-Type","Authorization","X-Requested-With"));
+    cfg.setExposedHeaders(List.of(PageCursor.NEXT_CURSOR_HEADER, HttpHeaders.RETRY_AFTER));
     cfg.setAllowCredentials(true);
     cfg.setMaxAge(3600L);
 
@@ -0,0 +1,98 @@
+package com.digileave.digileave.Security;
+
+import com.digileave.digileave.Models.enums.Role;
+import com.digileave.digileave.Services.JwtService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+// # Verified JWT -> ready Authentication, so repeat tokens skip signature check and claim parsing
+@Component
+public class VerifiedTokenCache {
+
+  private static final long MAX_ENTRIES = 10_000;
+
+  // One immutable authority list per role, shared by all cached tokens
+  private static final Map<Role, List<SimpleGrantedAuthority>> AUTHORITIES = new EnumMap<>(Role.class);
+  static {
+    for (Role role : Role.values()) {
+      AUTHORITIES.put(role, List.of(new SimpleGrantedAuthority("ROLE_" + role.name())));
+    }
+  }
+
+  private record Entry(Authentication authentication, Instant expiresAt) {}
+
+  private final JwtService jwt;
+  private final Cache<String, Entry> cache;
+
+  public VerifiedTokenCache(JwtService jwt, MeterRegistry meterRegistry) {
+    this.jwt = jwt;
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(MAX_ENTRIES)
+        .expireAfter(Expiry.creating((String key, Entry entry) ->
+            Duration.between(Instant.now(), entry.expiresAt())))
+        .recordStats()
+        .build();
+    // cache.gets{result=hit|miss}, cache.evictions, cache.size tagged cache=jwt.verified
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.verified");
+  }
+
+  // # Returns the cached Authentication or verifies the token; throws JwtException when invalid
+  public Authentication authenticate(String token) throws JwtException {
+    String key = digest(token);
+    Entry hit = cache.getIfPresent(key);
+    if (hit != null && hit.expiresAt().isAfter(Instant.now())) {
+      return hit.authentication();
+    }
+
+    Claims claims = jwt.parseJwtToken(token).getBody();
+    Authentication authentication = toAuthentication(claims);
+    if (claims.getExpiration() != null) {
+      cache.put(key, new Entry(authentication, claims.getExpiration().toInstant()));
+    }
+    return authentication;
+  }
+
+  private static Authentication toAuthentication(Claims claims) {
+    Role role;
+    try {
+      role = Role.valueOf(claims.get("role", String.class));
+    } catch (IllegalArgumentException | NullPointerException e) {
+      throw new MalformedJwtException("unknown role claim");
+    }
+    var authentication = new UsernamePasswordAuthenticationToken(claims.getSubject(), null, AUTHORITIES.get(role));
+    authentication.setDetails(claims.get("email", String.class));
+    return authentication;
+  }
+
+  // # SHA-256 so raw bearer tokens are never kept as map keys
+  private static String digest(String token) {
+    try {
+      byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+      return Base64.getEncoder().encodeToString(hash);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+}
@@ -0,0 +1,107 @@
+package com.digileave.digileave.Services;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Predicate;
+
+import org.springframework.stereotype.Service;
+
+import com.digileave.digileave.Models.Request;
+import com.digileave.digileave.Models.enums.LeaveType;
+import com.digileave.digileave.Models.enums.Status;
+import com.digileave.digileave.Repositories.RequestRepository;
+
+import jakarta.annotation.PostConstruct;
+
+// # Sorted interval index of APPROVED / PENDING leave - "who is off on which day" without scanning requests
+// ! Single instance only - kept current from request create / decide / cancel
+@Service
+public class AbsenceCalendar {
+
+    public static final Set<Status> ABSENT_STATUSES = Set.of(Status.APPROVED, Status.PENDING);
+
+    public record Absence(String requestId, String userId, LocalDate startDate, LocalDate endDate,
+                          Status status, LeaveType type) {}
+
+    private final RequestRepository requests;
+
+    // startDate -> (requestId -> absence); each absence is stored once, as an interval
+    private final ConcurrentSkipListMap<LocalDate, Map<String, Absence>> byStart = new ConcurrentSkipListMap<>();
+    // requestId -> indexed absence, to find its start entry on change
+    private final Map<String, Absence> byRequest = new ConcurrentHashMap<>();
+    // Longest indexed absence (end - start, in days) - how far before `from` a range query must look
+    private volatile long longestDays;
+    // length in days -> how many indexed absences have it, so a removal can shrink longestDays
+    private final TreeMap<Long, Integer> lengths = new TreeMap<>();
+
+    public AbsenceCalendar(RequestRepository requests) {
+        this.requests = requests;
+    }
+
+    @PostConstruct
+    public synchronized void rebuild() {
+        byStart.clear();
+        byRequest.clear();
+        lengths.clear();
+        longestDays = 0;
+        try (var all = requests.streamByStatusIn(ABSENT_STATUSES)) {
+            all.forEach(this::onChanged);
+        }
+    }
+
+    // # Call after any request is created or changes status
+    public synchronized void onChanged(Request r) {
+        if (r == null || r.getId() == null) return;
+        remove(r.getId());
+        if (!ABSENT_STATUSES.contains(r.getStatus()) || r.getStartDate() == null || r.getEndDate() == null
+                || r.getEndDate().isBefore(r.getStartDate())) {
+            return;
+        }
+        var absence = new Absence(r.getId(), r.getUserId(), r.getStartDate(), r.getEndDate(), r.getStatus(), r.getType());
+        byRequest.put(r.getId(), absence);
+        byStart.computeIfAbsent(absence.startDate(), d -> new ConcurrentHashMap<>()).put(r.getId(), absence);
+        lengths.merge(lengthOf(absence), 1, Integer::sum);
+        longestDays = lengths.lastKey();
+    }
+
+    public synchronized void remove(String requestId) {
+        var previous = byRequest.remove(requestId);
+        if (previous == null) return;
+        byStart.computeIfPresent(previous.startDate(), (d, set) -> {
+            set.remove(requestId);
+            return set.isEmpty() ? null : set;
+        });
+        lengths.computeIfPresent(lengthOf(previous), (days, count) -> count == 1 ? null : count - 1);
+        longestDays = lengths.isEmpty() ? 0 : lengths.lastKey();
+    }
+
+    private static long lengthOf(Absence a) {
+        return ChronoUnit.DAYS.between(a.startDate(), a.endDate());
+    }
+
+    /**
+     * Absences per day in [from, to] for users accepted by {@code who}; days without absences are omitted.
+     * Walks the absences starting in [from - longest, to] - O(log n + k) - and spreads each one over
+     * the days it covers inside the range, so the cost is bounded by the (capped) query range.
+     */
+    public Map<LocalDate, List<Absence>> between(LocalDate from, LocalDate to, Predicate<String> who) {
+        Map<LocalDate, List<Absence>> out = new TreeMap<>();
+        for (var starting : byStart.subMap(from.minusDays(longestDays), true, to, true).values()) {
+            for (Absence a : starting.values()) {
+                if (a.endDate().isBefore(from) || !who.test(a.userId())) continue;
+                var last = a.endDate().isAfter(to) ? to : a.endDate();
+                for (var day = a.startDate().isBefore(from) ? from : a.startDate(); !day.isAfter(last); day = day.plusDays(1)) {
+                    out.computeIfAbsent(day, d -> new ArrayList<>()).add(a);
+                }
+            }
+        }
+        return out;
+    }
+}
@@ -0,0 +1,129 @@
+package com.digileave.digileave.Services;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Service;
+
+import com.digileave.digileave.Models.User;
+import com.digileave.digileave.Models.enums.Role;
+import com.digileave.digileave.Repositories.UserRepository;
+
+import jakarta.annotation.PostConstruct;
+
+// # In-process approver -> assignees index (and reverse), used for O(1) authorization
+// ! Kept current by every write of role / assigneeIds - AdminController edits and deletes,
+// ! UserImportService rebuilds after a bulk import
+@Service
+public class AssigneeIndex {
+
+    private final UserRepository users;
+
+    // Lock-free reads: values are immutable sets swapped as a whole, and a rebuild swaps the whole
+    // table in one reference write - readers never see it half-loaded
+    private volatile Tables tables = new Tables();
+
+    public AssigneeIndex(UserRepository users) {
+        this.users = users;
+    }
+
+    // # Load every approver / admin - at startup and after bulk imports
+    @PostConstruct
+    public synchronized void rebuild() {
+        var fresh = new Tables();
+        users.findByRoleIn(List.of(Role.APPROVER, Role.ADMIN)).forEach(fresh::put);
+        tables = fresh;
+    }
+
+    // # Reads
+    public boolean isAdmin(String userId) {
+        return userId != null && tables.admins.contains(userId);
+    }
+
+    public Set<String> assigneesOf(String approverId) {
+        return approverId == null ? Set.of() : tables.assigneesByApprover.getOrDefault(approverId, Set.of());
+    }
+
+    public Set<String> approversOf(String assigneeId) {
+        return assigneeId == null ? Set.of() : tables.approversByAssignee.getOrDefault(assigneeId, Set.of());
+    }
+
+    // ADMIN can act on anyone; APPROVER only on own assignees
+    public boolean canManage(String approverId, String assigneeId) {
+        return isAdmin(approverId) || assigneesOf(approverId).contains(assigneeId);
+    }
+
+    // # Writes - call after a user's role or assigneeIds are saved
+    public synchronized void put(User user) {
+        tables.put(user);
+    }
+
+    // # Deleted user disappears both as approver and as assignee
+    public synchronized void remove(String userId) {
+        tables.remove(userId);
+    }
+
+    private static final class Tables {
+
+        final Map<String, Set<String>> assigneesByApprover = new ConcurrentHashMap<>();
+        final Map<String, Set<String>> approversByAssignee = new ConcurrentHashMap<>();
+        final Set<String> admins = ConcurrentHashMap.newKeySet();
+
+        void put(User user) {
+            String id = user.getId();
+            if (id == null) return;
+
+            if (user.getRole() == Role.ADMIN) admins.add(id); else admins.remove(id);
+
+            Set<String> next = (user.getRole() == Role.USER || user.getAssigneeIds() == null)
+                    ? Set.of()
+                    : Set.copyOf(user.getAssigneeIds());
+            Set<String> previous = next.isEmpty() ? assigneesByApprover.remove(id) : assigneesByApprover.put(id, next);
+
+            if (previous != null) {
+                for (String assignee : previous) {
+                    if (!next.contains(assignee)) unlink(assignee, id);
+                }
+            }
+            for (String assignee : next) {
+                if (previous == null || !previous.contains(assignee)) link(assignee, id);
+            }
+        }
+
+        void remove(String userId) {
+            admins.remove(userId);
+            Set<String> previous = assigneesByApprover.remove(userId);
+            if (previous != null) previous.forEach(assignee -> unlink(assignee, userId));
+
+            Set<String> approvers = approversByAssignee.remove(userId);
+            if (approvers != null) {
+                for (String approver : approvers) {
+                    assigneesByApprover.computeIfPresent(approver, (k, set) -> {
+                        var copy = new HashSet<>(set);
+                        copy.remove(userId);
+                        return copy.isEmpty() ? null : Set.copyOf(copy);
+                    });
+                }
+            }
+        }
+
+        private void link(String assignee, String approver) {
+            approversByAssignee.compute(assignee, (k, set) -> {
+                var copy = set == null ? new HashSet<String>() : new HashSet<>(set);
+                copy.add(approver);
+                return Set.copyOf(copy);
+            });
+        }
+
+        private void unlink(String assignee, String approver) {
+            approversByAssignee.computeIfPresent(assignee, (k, set) -> {
+                var copy = new HashSet<>(set);
+                copy.remove(approver);
+                return copy.isEmpty() ? null : Set.copyOf(copy);
+            });
+        }
+    }
+}
@@ -7,6 +7,7 @@ import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.Jws;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
@@ -22,6 +23,8 @@ public class JwtService {
     
     // # Key Management
     private final Key key;
+    // Immutable and thread-safe - built once instead of per request
+    private final JwtParser parser;
     public JwtService() {
         String b64 = System.getenv("JWT_SECRET_BASE64");
         
@@ -30,6 +33,9 @@ public class JwtService {
             b64 = Base64.getEncoder().encodeToString(dev.getBytes(StandardCharsets.UTF_8));
         }
         this.key = Keys.hmacShaKeyFor(Base64.getDecoder().decode(b64));
+        this.parser = Jwts.parserBuilder()
+        .setSigningKey(key)
+        .build();
     }
     
     // # Create JWT
@@ -51,10 +57,7 @@ public class JwtService {
     
     // # Parse JWT
     public Jws<Claims> parseJwtToken(String token) throws JwtException {
-        return Jwts.parserBuilder()
-        .setSigningKey(key)
-        .build()
-        .parseClaimsJws(token);
+        return parser.parseClaimsJws(token);
     }
 
 }
\ No newline at end of file
@@ -2,7 +2,12 @@ package com.digileave.digileave.Services;
 
 import java.time.LocalDate;
 import java.time.MonthDay;
+import java.time.Year;
 import java.time.ZoneId;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
@@ -13,66 +18,50 @@ import com.digileave.digileave.Repositories.UserRepository;
 @Component
 public class LeaveDaysAdditionService {
     
+    private static final Logger log = LoggerFactory.getLogger(LeaveDaysAdditionService.class);
+
     private static final int MAX_BALANCE = 60;
+    private static final int ACCRUAL_CHUNK_SIZE = 1000;
+    private static final ZoneId SOFIA_ZONE = ZoneId.of("Europe/Sofia");
 
     private final UserRepository users;
+    private final UserDataVersions versions;
 
-    public LeaveDaysAdditionService(UserRepository users){
+    public LeaveDaysAdditionService(UserRepository users, UserDataVersions versions){
         this.users = users;
+        this.versions = versions;
     }
 
+    // # Runs fully in Mongo as chunked pipeline updates; safe to re-run (users are stamped with the year)
     @Scheduled(cron = "0 45 0 1 1 *", zone = "Europe/Sofia" )// 00:45 Jan 1st Sofia
-    public void addYearlyContractLeaveDays(){
-        var allUsers = users.findAll();
-
-        for (User u : allUsers){
-    
-            var leaveDaysBalance = u.getAvailableLeaveDays();
-            var yearlyByContract = u.getContractLeaveDays();
-            if(leaveDaysBalance + yearlyByContract > MAX_BALANCE){
-                u.setAvailableLeaveDays(MAX_BALANCE);
-            }
-            else{
-                var currentYear = java.time.Year.now().getValue();
-                var workingSinceYear = u.getWorkingSince().getYear();
-
-                // ! Variant 1
-                u.setAvailableLeaveDays(leaveDaysBalance + yearlyByContract + (currentYear - workingSinceYear));
-
-                // ! Variant 2
-                u.setAvailableLeaveDays(leaveDaysBalance + yearlyByContract + (currentYear == workingSinceYear ? 0 : currentYear - workingSinceYear - 1));
-            }
-        }
-
-        users.saveAll(allUsers);
+    public long addYearlyContractLeaveDays(){
+        int currentYear = Year.now(SOFIA_ZONE).getValue();
+        long processed = users.accrueYearlyContractLeaveDays(currentYear, MAX_BALANCE, ACCRUAL_CHUNK_SIZE);
+        if (processed > 0) versions.bumpAll();
+        log.info("Yearly contract leave days for {} added to {} users", currentYear, processed);
+        return processed;
     }
 
     // ! Variant 2 
+    // # Only touches users whose anniversary is today (indexed lookup + $inc)
     @Scheduled(cron = "0 0 3 * * *", zone = "Europe/Sofia") // runs daily at 03:00 Europe/Sofia
-    public void addPerUserAnniversaryDay() {
-        final ZoneId SOFIA_ZONE = ZoneId.of("Europe/Sofia");
+    public long addPerUserAnniversaryDay() {
         final LocalDate todayInSofia = LocalDate.now(SOFIA_ZONE);
-        final MonthDay todayMonthDay = MonthDay.from(todayInSofia);
-
-        var allUsers = users.findAll();
-        for (User user : allUsers) {
-            LocalDate workingSinceDate = user.getWorkingSince();
-            if (workingSinceDate == null) continue;
 
-            MonthDay anniversaryMonthDay = MonthDay.from(workingSinceDate);
-
-            boolean isWorkAnniversary =
-                anniversaryMonthDay.equals(todayMonthDay) ||
-                (anniversaryMonthDay.equals(MonthDay.of(2, 29))
-                    && !todayInSofia.isLeapYear()
-                    && todayMonthDay.equals(MonthDay.of(2, 28)));
+        users.backfillAnniversaryMonthDay();
+        long updated = users.addAnniversaryDay(anniversaryKeysFor(todayInSofia), MAX_BALANCE);
+        if (updated > 0) versions.bumpAll();
+        log.info("Anniversary leave day added to {} users", updated);
+        return updated;
+    }
 
-            if (isWorkAnniversary) {
-                int updatedBalance = Math.min(MAX_BALANCE, user.getAvailableLeaveDays() + 1);
-                user.setAvailableLeaveDays(updatedBalance);
-            }
+    // # Feb 29 anniversaries are celebrated on Feb 28 in non-leap years
+    static List<String> anniversaryKeysFor(LocalDate day) {
+        String today = User.anniversaryKey(day);
+        if (!day.isLeapYear() && MonthDay.from(day).equals(MonthDay.of(2, 28))) {
+            return List.of(today, User.anniversaryKey(LocalDate.of(2000, 2, 29)));
         }
-        users.saveAll(allUsers);
+        return List.of(today);
     }
 
 }
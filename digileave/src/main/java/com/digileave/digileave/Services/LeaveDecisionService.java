@@ -0,0 +1,198 @@
+package com.digileave.digileave.Services;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.digileave.digileave.DTOs.BulkDecisionResultDto;
+import com.digileave.digileave.DTOs.LeaveEventDto;
+import com.digileave.digileave.DTOs.RequestExportDto;
+import com.digileave.digileave.Models.Request;
+import com.digileave.digileave.Models.enums.Status;
+import com.digileave.digileave.Repositories.LeaveUsageRepository;
+import com.digileave.digileave.Repositories.LeaveUsageRepositoryCustom.Increment;
+import com.digileave.digileave.Repositories.RequestRepository;
+import com.digileave.digileave.Repositories.UserRepository;
+import com.digileave.digileave.Repositories.UserRepositoryCustom;
+
+// # Approve / reject as conditional updates - no read-modify-write, safe under parallel approvers
+@Service
+public class LeaveDecisionService {
+
+    private final UserRepository users;
+    private final RequestRepository requests;
+    private final AssigneeIndex assigneeIndex;
+    private final AbsenceCalendar calendar;
+    private final UserDataVersions versions;
+    private final LeaveEventBus events;
+    private final LeaveUsageRepository usage;
+    // Present only with digileave.mongo.transactions=true
+    private final TransactionTemplate transactions;
+
+    public LeaveDecisionService(UserRepository users, RequestRepository requests, AssigneeIndex assigneeIndex,
+                                AbsenceCalendar calendar, UserDataVersions versions, LeaveEventBus events,
+                                LeaveUsageRepository usage, ObjectProvider<TransactionTemplate> transactions) {
+        this.users = users;
+        this.requests = requests;
+        this.assigneeIndex = assigneeIndex;
+        this.calendar = calendar;
+        this.versions = versions;
+        this.events = events;
+        this.usage = usage;
+        this.transactions = transactions.getIfAvailable();
+    }
+
+    public Request decide(String approverId, String requestId, Status newStatus) {
+        if (newStatus == null || (newStatus != Status.APPROVED && newStatus != Status.REJECTED)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "status must be APPROVED or REJECTED");
+        }
+        var decided = inTransaction(() -> decideOnce(approverId, requestId, newStatus));
+        versions.bump(decided.getUserId());
+        calendar.onChanged(decided);
+        events.publish(LeaveEventDto.Type.DECISION, decided);
+        if (newStatus == Status.APPROVED) events.publishBalance(decided.getUserId(), -decided.getWorkdaysCount());
+        return decided;
+    }
+
+    private Request decideOnce(String approverId, String requestId, Status newStatus) {
+        // ADMIN can decide any request; APPROVER must be assigned to the requester (checked in the filter)
+        var ownerIds = assigneeIndex.isAdmin(approverId) ? null : assigneeIndex.assigneesOf(approverId);
+
+        // # Round trip 1 - flip PENDING -> decision only if still PENDING
+        var decided = requests.decideIfPending(requestId, ownerIds, newStatus, approverId, Instant.now())
+                .orElseThrow(() -> whyNotDecided(requestId, approverId));
+
+        // # Round trip 2 - deduct days on APPROVED, count the unread decision
+        int leaveDaysDelta = newStatus == Status.APPROVED ? -decided.getWorkdaysCount() : 0;
+        if (!users.recordDecision(decided.getUserId(), leaveDaysDelta)) {
+            if (transactions == null) requests.restorePending(requestId, newStatus);
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "request owner not found");
+        }
+
+        // # Round trip 3 - $inc upsert on the usage rollup
+        try {
+            recordUsage(List.of(decided), newStatus);
+        } catch (RuntimeException e) {
+            // # Without a transaction, give the days and the unread count back and reopen the request
+            if (transactions == null) {
+                var applied = new UserRepositoryCustom.DecisionTotals(leaveDaysDelta, 1);
+                users.recordDecisions(Map.of(decided.getUserId(), applied.negated()));
+                requests.restorePending(requestId, newStatus);
+            }
+            throw e;
+        }
+        return decided;
+    }
+
+    // # Batch: one read, one authorization pass, one updateMany, one bulk $inc per owner
+    public List<BulkDecisionResultDto> decideAll(String approverId, List<String> requestIds, Status newStatus) {
+        if (newStatus == null || (newStatus != Status.APPROVED && newStatus != Status.REJECTED)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "status must be APPROVED or REJECTED");
+        }
+        var ids = new LinkedHashSet<>(requestIds);
+        // Millisecond stamp - what Mongo stores, so the response matches a later read
+        var decidedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+        Map<String, Request> found = new HashMap<>();
+        requests.findAllById(ids).forEach(r -> found.put(r.getId(), r));
+
+        var ownerIds = assigneeIndex.isAdmin(approverId) ? null : assigneeIndex.assigneesOf(approverId);
+        Map<String, BulkDecisionResultDto.Outcome> rejected = new HashMap<>();
+        List<String> candidates = new ArrayList<>();
+        for (String id : ids) {
+            var r = found.get(id);
+            if (r == null) rejected.put(id, BulkDecisionResultDto.Outcome.NOT_FOUND);
+            else if (ownerIds != null && !ownerIds.contains(r.getUserId())) rejected.put(id, BulkDecisionResultDto.Outcome.FORBIDDEN);
+            else if (r.getStatus() != Status.PENDING) rejected.put(id, BulkDecisionResultDto.Outcome.ALREADY_DECIDED);
+            else candidates.add(id);
+        }
+
+        Set<String> decided = candidates.isEmpty() ? Set.of() : inTransaction(() -> {
+            var moved = requests.decideAllIfPending(candidates, newStatus, approverId, decidedAt);
+
+            Map<String, UserRepositoryCustom.DecisionTotals> totals = new HashMap<>();
+            for (String id : moved) {
+                var r = found.get(id);
+                int delta = newStatus == Status.APPROVED ? -r.getWorkdaysCount() : 0;
+                totals.merge(r.getUserId(), new UserRepositoryCustom.DecisionTotals(delta, 1), UserRepositoryCustom.DecisionTotals::plus);
+            }
+            // ! Owners deleted meanwhile are skipped - unlike decide(), there is no per-request rollback
+            boolean recorded = false;
+            try {
+                users.recordDecisions(totals);
+                recorded = true;
+                recordUsage(moved.stream().map(found::get).toList(), newStatus);
+            } catch (RuntimeException e) {
+                // # Without a transaction, undo what already landed - like decideOnce's restorePending
+                // ! A partly applied rollup $inc is not undone - /admin/rebuild-usage-rollups repairs it
+                if (transactions == null) {
+                    if (recorded) {
+                        Map<String, UserRepositoryCustom.DecisionTotals> refund = new HashMap<>();
+                        totals.forEach((userId, t) -> refund.put(userId, t.negated()));
+                        users.recordDecisions(refund);
+                    }
+                    requests.restoreAllPending(moved, newStatus);
+                }
+                throw e;
+            }
+            return moved;
+        });
+
+        List<BulkDecisionResultDto> results = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            if (!decided.contains(id)) {
+                var outcome = rejected.getOrDefault(id, BulkDecisionResultDto.Outcome.ALREADY_DECIDED);
+                results.add(new BulkDecisionResultDto(id, outcome, null));
+                continue;
+            }
+            var r = found.get(id);
+            r.setStatus(newStatus);
+            r.setDecision_Seen(false);
+            r.setDecidedByUserId(approverId);
+            r.setDecidedAt(decidedAt);
+
+            versions.bump(r.getUserId());
+            calendar.onChanged(r);
+            events.publish(LeaveEventDto.Type.DECISION, r);
+            if (newStatus == Status.APPROVED) events.publishBalance(r.getUserId(), -r.getWorkdaysCount());
+            results.add(new BulkDecisionResultDto(id, BulkDecisionResultDto.Outcome.DECIDED, RequestExportDto.from(r)));
+        }
+        return results;
+    }
+
+    // ! Requests saved before startDate was required have no month - they stay out of the rollups
+    private void recordUsage(List<Request> decided, Status outcome) {
+        usage.increment(decided.stream()
+                .filter(r -> r.getStartDate() != null)
+                .map(r -> Increment.of(r, outcome))
+                .toList());
+    }
+
+    // # Failure path only - one extra read to pick the right status code
+    private ResponseStatusException whyNotDecided(String requestId, String approverId) {
+        var r = requests.findById(requestId).orElse(null);
+        if (r == null) {
+            return new ResponseStatusException(HttpStatus.NOT_FOUND, "request not found");
+        }
+        if (!assigneeIndex.canManage(approverId, r.getUserId())) {
+            return new ResponseStatusException(HttpStatus.FORBIDDEN, "not your assignee");
+        }
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "request already decided");
+    }
+
+    private <T> T inTransaction(Supplier<T> work) {
+        return transactions == null ? work.get() : transactions.execute(status -> work.get());
+    }
+}
@@ -0,0 +1,226 @@
+package com.digileave.digileave.Services;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.digileave.digileave.DTOs.LeaveEventDto;
+import com.digileave.digileave.DTOs.RequestExportDto;
+import com.digileave.digileave.Models.Request;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * In-process fan-out of leave events to open {@code /events} connections. An event goes to
+ * the request owner, the owner's approvers and every connected admin. Publishers only enqueue:
+ * each connection has a small bounded buffer, and a connection that falls behind is closed (the
+ * client reconnects and reloads) instead of blocking anyone.
+ * <p>
+ * {@code emitter.send} is a blocking servlet write, so a client that stops reading stalls
+ * whichever thread is sending to it. Each connection is therefore drained on its own thread
+ * (borrowed from a cached pool only while it has frames to send), and the heartbeat closes any
+ * connection whose current write has been stuck for longer than {@link #WRITE_TIMEOUT}.
+ */
+@Service
+public class LeaveEventBus {
+
+    private static final int BUFFER_SIZE = 64;
+    private static final Duration HEARTBEAT = Duration.ofSeconds(25);
+    private static final Duration CONNECTION_TIMEOUT = Duration.ofMinutes(30);
+    private static final Duration WRITE_TIMEOUT = Duration.ofSeconds(10);
+
+    private final AssigneeIndex assigneeIndex;
+    private final AtomicLong sequence = new AtomicLong();
+    private final ConcurrentHashMap<String, Set<Connection>> byUser = new ConcurrentHashMap<>();
+    private final Set<Connection> admins = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders;
+    private final ScheduledExecutorService heartbeats;
+    private final Counter overflowed;
+    private final Counter stalled;
+
+    public LeaveEventBus(AssigneeIndex assigneeIndex, MeterRegistry meterRegistry) {
+        this.assigneeIndex = assigneeIndex;
+        // One thread per connection that is mid-drain; idle connections hold none
+        this.senders = Executors.newCachedThreadPool(daemon("sse-sender"));
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(daemon("sse-heartbeat"));
+        this.heartbeats.scheduleAtFixedRate(this::heartbeat,
+                HEARTBEAT.toSeconds(), HEARTBEAT.toSeconds(), TimeUnit.SECONDS);
+        this.overflowed = Counter.builder("sse.connections.overflowed")
+                .description("Event stream connections closed because their buffer was full")
+                .register(meterRegistry);
+        this.stalled = Counter.builder("sse.connections.stalled")
+                .description("Event stream connections closed because a write stayed blocked")
+                .register(meterRegistry);
+        Gauge.builder("sse.connections", byUser, m -> m.values().stream().mapToInt(Set::size).sum())
+                .description("Open event stream connections")
+                .register(meterRegistry);
+    }
+
+    // # Open a stream for the user - events published from now on are delivered
+    public SseEmitter subscribe(String userId) {
+        var connection = new Connection(userId, new SseEmitter(CONNECTION_TIMEOUT.toMillis()));
+        byUser.compute(userId, (k, cs) -> {
+            if (cs == null) cs = ConcurrentHashMap.newKeySet();
+            cs.add(connection);
+            return cs;
+        });
+        if (assigneeIndex.isAdmin(userId)) admins.add(connection);
+
+        connection.emitter.onCompletion(connection::close);
+        connection.emitter.onTimeout(connection::close);
+        connection.emitter.onError(e -> connection.close());
+
+        // Commits the response headers right away
+        connection.offer(SseEmitter.event().comment("connected").build());
+        return connection.emitter;
+    }
+
+    public void publish(LeaveEventDto.Type type, Request request) {
+        publish(type, request.getUserId(), RequestExportDto.from(request), null);
+    }
+
+    public void publishBalance(String userId, int leaveDaysDelta) {
+        publish(LeaveEventDto.Type.BALANCE, userId, null, leaveDaysDelta);
+    }
+
+    private void publish(LeaveEventDto.Type type, String userId, RequestExportDto request, Integer delta) {
+        if (byUser.isEmpty()) return;
+        var event = new LeaveEventDto(sequence.incrementAndGet(), type, userId, request, delta, Instant.now());
+        // Built once, shared by every connection
+        var frame = SseEmitter.event()
+                .id(Long.toString(event.id()))
+                .name(type.name())
+                .data(event, MediaType.APPLICATION_JSON)
+                .build();
+
+        Set<Connection> audience = new HashSet<>(admins);
+        addConnectionsOf(userId, audience);
+        for (String approverId : assigneeIndex.approversOf(userId)) addConnectionsOf(approverId, audience);
+        for (Connection c : audience) c.offer(frame);
+    }
+
+    private void addConnectionsOf(String userId, Set<Connection> into) {
+        var own = byUser.get(userId);
+        if (own != null) into.addAll(own);
+    }
+
+    // # Keeps idle connections alive through proxies and surfaces dead or stuck ones
+    private void heartbeat() {
+        var frame = SseEmitter.event().comment("hb").build();
+        long now = System.nanoTime();
+        for (var connections : byUser.values()) {
+            for (Connection c : connections) {
+                if (c.stalledAt(now)) {
+                    stalled.increment();
+                    c.close();
+                } else {
+                    c.offer(frame);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeats.shutdownNow();
+        byUser.values().forEach(cs -> cs.forEach(Connection::close));
+        senders.shutdown();
+    }
+
+    private final class Connection {
+        final String userId;
+        final SseEmitter emitter;
+        final BlockingQueue<Set<DataWithMediaType>> buffer = new ArrayBlockingQueue<>(BUFFER_SIZE);
+        final AtomicBoolean draining = new AtomicBoolean();
+        // nanoTime the in-progress send started at, 0 between sends
+        volatile long sendingSince;
+        volatile boolean closed;
+
+        Connection(String userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        // # Never blocks the publisher - a full buffer means a stuck client
+        void offer(Set<DataWithMediaType> frame) {
+            if (closed) return;
+            if (!buffer.offer(frame)) {
+                overflowed.increment();
+                close();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        void scheduleDrain() {
+            if (!closed && draining.compareAndSet(false, true)) senders.execute(this::drain);
+        }
+
+        void drain() {
+            try {
+                Set<DataWithMediaType> frame;
+                while (!closed && (frame = buffer.poll()) != null) {
+                    sendingSince = System.nanoTime();
+                    emitter.send(frame);
+                    sendingSince = 0;
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+            } finally {
+                sendingSince = 0;
+                draining.set(false);
+                if (!buffer.isEmpty()) scheduleDrain();
+            }
+        }
+
+        // The blocked write itself ends with the container's socket timeout; closing stops queueing behind it
+        boolean stalledAt(long now) {
+            long since = sendingSince;
+            return since != 0 && now - since > WRITE_TIMEOUT.toNanos();
+        }
+
+        void close() {
+            if (closed) return;
+            closed = true;
+            buffer.clear();
+            admins.remove(this);
+            byUser.computeIfPresent(userId, (k, cs) -> {
+                cs.remove(this);
+                return cs.isEmpty() ? null : cs;
+            });
+            try {
+                emitter.complete();
+            } catch (IllegalStateException ignored) {
+                // already completed by the container
+            }
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return r -> {
+            var t = new Thread(r, name);
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
@@ -0,0 +1,84 @@
+package com.digileave.digileave.Services;
+
+import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.digileave.digileave.DTOs.LeaveEventDto;
+import com.digileave.digileave.DTOs.RequestCreateDto;
+import com.digileave.digileave.Models.Request;
+import com.digileave.digileave.Models.enums.Status;
+import com.digileave.digileave.Repositories.RequestRepository;
+
+// # Request creation - validates the period and rejects overlaps with the user's live leave
+@Service
+public class LeaveRequestService {
+
+    // Statuses that still hold the days
+    private static final Set<Status> BLOCKING = EnumSet.of(Status.PENDING, Status.APPROVED);
+    private static final int LOCK_STRIPES = 64;
+    // A year, leap day included - longer periods are never real leave
+    public static final int MAX_REQUEST_DAYS = 366;
+
+    private final RequestRepository requests;
+    private final WorkingDayCalendar workingDays;
+    private final AbsenceCalendar calendar;
+    private final UserDataVersions versions;
+    private final LeaveEventBus events;
+
+    // ! Check-then-insert is serialized per user - different users rarely contend, only when their ids share one of the 64 stripes
+    private final ReentrantLock[] stripes = new ReentrantLock[LOCK_STRIPES];
+
+    public LeaveRequestService(RequestRepository requests, WorkingDayCalendar workingDays, AbsenceCalendar calendar,
+                               UserDataVersions versions, LeaveEventBus events) {
+        this.requests = requests;
+        this.workingDays = workingDays;
+        this.calendar = calendar;
+        this.versions = versions;
+        this.events = events;
+        for (int i = 0; i < LOCK_STRIPES; i++) stripes[i] = new ReentrantLock();
+    }
+
+    public Request create(String userId, RequestCreateDto body) {
+        if (body.endDate().isBefore(body.startDate())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "endDate must not be before startDate");
+        }
+        if (ChronoUnit.DAYS.between(body.startDate(), body.endDate()) >= MAX_REQUEST_DAYS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A request may span at most " + MAX_REQUEST_DAYS + " days");
+        }
+        int workdays = workingDays.workdays(body.startDate(), body.endDate());
+        if (workdays == 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The selected period has no working days");
+        }
+
+        var request = new Request();
+        request.setUserId(userId);
+        request.setStartDate(body.startDate());
+        request.setEndDate(body.endDate());
+        request.setWorkdaysCount(workdays);
+        request.setType(body.type());
+        request.setComment(body.comment());
+
+        var lock = stripes[Math.floorMod(String.valueOf(userId).hashCode(), LOCK_STRIPES)];
+        Request saved;
+        lock.lock();
+        try {
+            // # One bounded index range scan on (userId, status, startDate, endDate)
+            if (requests.existsOverlapping(userId, BLOCKING, body.startDate(), body.endDate())) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "The selected period overlaps an existing request");
+            }
+            saved = requests.save(request);
+        } finally {
+            lock.unlock();
+        }
+        versions.bump(userId);
+        calendar.onChanged(saved);
+        events.publish(LeaveEventDto.Type.CREATED, saved);
+        return saved;
+    }
+}
@@ -0,0 +1,69 @@
+package com.digileave.digileave.Services;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+// # Writes a cursor-backed Stream as application/x-ndjson, one document per line
+@Component
+public class NdjsonStreamer {
+
+    // Flush every N lines so the client starts rendering while the cursor is still open
+    private static final int FLUSH_EVERY = 64;
+
+    private final ObjectWriter writer;
+    // Rows of one stream share a DTO type - resolve its serializer once, not per line
+    private final ConcurrentHashMap<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    public NdjsonStreamer(ObjectMapper mapper) {
+        this.writer = mapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * The stream is opened lazily on the response thread and always closed (closing the Mongo cursor).
+     * A slow client blocks the write, which stops cursor batches from being fetched - natural backpressure.
+     */
+    public <T, R> ResponseEntity<StreamingResponseBody> respond(Supplier<Stream<T>> source, Function<T, R> mapper) {
+        StreamingResponseBody body = out -> write(source, mapper, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private <T, R> void write(Supplier<Stream<T>> source, Function<T, R> mapper, OutputStream raw) throws IOException {
+        var out = new BufferedOutputStream(raw, 8 * 1024);
+        try (Stream<T> rows = source.get()) {
+            var it = rows.iterator();
+            int n = 0;
+            ObjectWriter typed = null;
+            while (it.hasNext()) {
+                R value = mapper.apply(it.next());
+                if (typed == null) typed = writerFor(value);
+                typed.writeValue(out, value);
+                out.write('\n');
+                if (++n % FLUSH_EVERY == 0) out.flush();
+            }
+        }
+        out.flush();
+    }
+
+    // Only final types (records) get a static root type - anything else stays dynamic
+    private ObjectWriter writerFor(Object value) {
+        if (value == null || !Modifier.isFinal(value.getClass().getModifiers())) return writer;
+        return writers.computeIfAbsent(value.getClass(), writer::forType);
+    }
+}
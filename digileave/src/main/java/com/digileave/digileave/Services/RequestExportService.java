@@ -0,0 +1,200 @@
+package com.digileave.digileave.Services;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+
+import org.dhatim.fastexcel.Workbook;
+import org.dhatim.fastexcel.Worksheet;
+import org.springframework.stereotype.Service;
+
+import com.digileave.digileave.Models.Request;
+import com.digileave.digileave.Models.User;
+import com.digileave.digileave.Repositories.RequestRepository;
+import com.digileave.digileave.Repositories.RequestRepositoryCustom.ExportFilter;
+import com.digileave.digileave.Repositories.UserRepository;
+
+/**
+ * Request exports (CSV / XLSX) written straight from a Mongo cursor. Requests are read in
+ * batches of {@link #BATCH_SIZE}; the users they reference are resolved with one findAllById
+ * per batch and kept for the rest of the export, so memory grows with users, never with rows.
+ */
+@Service
+public class RequestExportService {
+
+    static final int BATCH_SIZE = 500;
+
+    public enum Format { CSV, XLSX }
+
+    // # Column keys match the ones ExportMenu.jsx already offers
+    public enum Column {
+        requestId("Request ID", (r, u) -> r.getId()),
+        assigneeId("Assignee ID", (r, u) -> r.getUserId()),
+        assigneeName("Assignee Name", (r, u) -> nameOr(u.get(r.getUserId()), r.getUserId())),
+        assigneeEmail("Assignee Email", (r, u) -> u.containsKey(r.getUserId()) ? u.get(r.getUserId()).getEmail() : null),
+        startDate("Start Date", (r, u) -> r.getStartDate()),
+        endDate("End Date", (r, u) -> r.getEndDate()),
+        workdaysCount("Workdays", (r, u) -> r.getWorkdaysCount()),
+        status("Status", (r, u) -> r.getStatus()),
+        type("Type", (r, u) -> r.getType()),
+        comment("Comment", (r, u) -> r.getComment()),
+        decidedBy("Decided By", (r, u) -> r.getDecidedByUserId() == null ? null : nameOr(u.get(r.getDecidedByUserId()), r.getDecidedByUserId())),
+        decidedAt("Decided At (UTC)", (r, u) -> r.getDecidedAt());
+
+        final String header;
+        final BiFunction<Request, Map<String, User>, Object> value;
+
+        Column(String header, BiFunction<Request, Map<String, User>, Object> value) {
+            this.header = header;
+            this.value = value;
+        }
+
+        private static String nameOr(User user, String fallback) {
+            return user == null || user.getFullName() == null ? fallback : user.getFullName();
+        }
+    }
+
+    private final RequestRepository requests;
+    private final UserRepository users;
+
+    public RequestExportService(RequestRepository requests, UserRepository users) {
+        this.requests = requests;
+        this.users = users;
+    }
+
+    public void write(ExportFilter filter, List<Column> columns, Format format, OutputStream out) throws IOException {
+        var sink = format == Format.XLSX ? new XlsxSink(out, columns) : new CsvSink(out, columns);
+        Map<String, User> userCache = new HashMap<>();
+        List<Request> batch = new ArrayList<>(BATCH_SIZE);
+
+        try (Stream<Request> rows = requests.streamForExport(filter)) {
+            var it = rows.iterator();
+            while (it.hasNext()) {
+                batch.add(it.next());
+                if (batch.size() == BATCH_SIZE || !it.hasNext()) {
+                    resolveUsers(batch, userCache);
+                    for (Request r : batch) sink.row(r, userCache);
+                    sink.flush();
+                    batch.clear();
+                }
+            }
+        }
+        sink.finish();
+    }
+
+    // # One batched lookup for users this batch references that we haven't seen yet
+    private void resolveUsers(List<Request> batch, Map<String, User> cache) {
+        Set<String> missing = new HashSet<>();
+        for (Request r : batch) {
+            if (r.getUserId() != null && !cache.containsKey(r.getUserId())) missing.add(r.getUserId());
+            if (r.getDecidedByUserId() != null && !cache.containsKey(r.getDecidedByUserId())) missing.add(r.getDecidedByUserId());
+        }
+        if (missing.isEmpty()) return;
+        users.findAllById(missing).forEach(u -> cache.put(u.getId(), u));
+    }
+
+    private interface Sink {
+        void row(Request r, Map<String, User> users) throws IOException;
+        void flush() throws IOException;
+        void finish() throws IOException;
+    }
+
+    // # RFC 4180, UTF-8 with BOM so Excel picks the encoding (same as the client-side export)
+    private static final class CsvSink implements Sink {
+        private final Writer out;
+        private final List<Column> columns;
+
+        CsvSink(OutputStream raw, List<Column> columns) throws IOException {
+            this.out = new BufferedWriter(new OutputStreamWriter(raw, StandardCharsets.UTF_8), 16 * 1024);
+            this.columns = columns;
+            out.write('\uFEFF');
+            writeLine(columns.stream().map(c -> (Object) c.header).toList());
+        }
+
+        @Override
+        public void row(Request r, Map<String, User> users) throws IOException {
+            List<Object> values = new ArrayList<>(columns.size());
+            for (Column c : columns) values.add(c.value.apply(r, users));
+            writeLine(values);
+        }
+
+        private void writeLine(List<Object> values) throws IOException {
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) out.write(',');
+                var v = values.get(i);
+                if (v == null) continue;
+                String s = v.toString();
+                if (s.indexOf(',') >= 0 || s.indexOf('"') >= 0 || s.indexOf('\n') >= 0 || s.indexOf('\r') >= 0) {
+                    out.write('"');
+                    out.write(s.replace("\"", "\"\""));
+                    out.write('"');
+                } else {
+                    out.write(s);
+                }
+            }
+            out.write('\n');
+        }
+
+        @Override
+        public void flush() throws IOException { out.flush(); }
+
+        @Override
+        public void finish() throws IOException { out.flush(); }
+    }
+
+    // # fastexcel writes finished rows to the zip stream on flush() - nothing is kept per row
+    private static final class XlsxSink implements Sink {
+        private final Workbook workbook;
+        private final Worksheet sheet;
+        private final List<Column> columns;
+        private int rowIndex;
+
+        XlsxSink(OutputStream out, List<Column> columns) {
+            this.workbook = new Workbook(out, "Digileave", "1.0");
+            this.sheet = workbook.newWorksheet("Requests");
+            this.columns = columns;
+            for (int c = 0; c < columns.size(); c++) {
+                sheet.value(0, c, columns.get(c).header);
+                sheet.width(c, Math.max(12, columns.get(c).header.length() + 4));
+            }
+            sheet.range(0, 0, 0, Math.max(0, columns.size() - 1)).style().bold().fillColor("EFEFEF").set();
+            sheet.freezePane(0, 1);
+            rowIndex = 1;
+        }
+
+        @Override
+        public void row(Request r, Map<String, User> users) {
+            for (int c = 0; c < columns.size(); c++) {
+                var v = columns.get(c).value.apply(r, users);
+                if (v == null) continue;
+                if (v instanceof LocalDate d) {
+                    sheet.value(rowIndex, c, d);
+                    sheet.style(rowIndex, c).format("yyyy-mm-dd").set();
+                } else if (v instanceof Number n) {
+                    sheet.value(rowIndex, c, n);
+                } else {
+                    sheet.value(rowIndex, c, v.toString());
+                }
+            }
+            rowIndex++;
+        }
+
+        @Override
+        public void flush() throws IOException { sheet.flush(); }
+
+        @Override
+        public void finish() throws IOException { workbook.finish(); }
+    }
+}
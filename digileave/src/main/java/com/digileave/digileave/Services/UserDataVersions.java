@@ -0,0 +1,38 @@
+package com.digileave.digileave.Services;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Monotonic per-user data version, bumped on every write to the user's own {@code User} or
+ * {@code Request} documents. It backs ETags on {@code /account} and {@code /requests}, so a
+ * matching {@code If-None-Match} is answered with 304 without reading Mongo. The ETags are weak:
+ * the same data goes out gzip-compressed or not, and Tomcat won't compress strong-ETag responses.
+ * Bulk jobs that touch many users bump the shared generation instead.
+ */
+@Component
+public class UserDataVersions {
+
+    // ! Versions live in memory - the per-boot epoch keeps old ETags from matching after a restart.
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong generation = new AtomicLong();
+    private final ConcurrentHashMap<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    public void bump(String userId) {
+        if (userId == null) return;
+        versions.computeIfAbsent(userId, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    // # Every user's data may have changed (yearly accrual, recomputations)
+    public void bumpAll() {
+        generation.incrementAndGet();
+    }
+
+    // # Read BEFORE loading the data, so a racing write can only make the ETag stale-low (one extra 200)
+    public String etagOf(String userId) {
+        var v = userId == null ? null : versions.get(userId);
+        return "W/\"" + epoch + "." + generation.get() + "." + (v == null ? 0 : v.get()) + "\"";
+    }
+}
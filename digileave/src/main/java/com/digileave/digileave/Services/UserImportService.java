@@ -0,0 +1,197 @@
+package com.digileave.digileave.Services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+
+import com.digileave.digileave.DTOs.UserImportResultDto;
+import com.digileave.digileave.DTOs.UserPatchDto;
+import com.digileave.digileave.Models.enums.Role;
+import com.digileave.digileave.Repositories.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import jakarta.validation.Validator;
+
+/**
+ * Streaming user import (CSV with a header row, or NDJSON of {@link UserPatchDto}). Rows are
+ * validated like {@code PATCH /admin/users/{id}}, buffered up to {@link #BATCH_SIZE} and upserted
+ * by email in one unordered bulk write per batch - memory stays bounded by the batch, not the file.
+ */
+@Service
+public class UserImportService {
+
+    static final int BATCH_SIZE = 500;
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final List<String> CSV_COLUMNS =
+            List.of("email", "fullName", "role", "availableLeaveDays", "contractLeaveDays", "workingSince", "assigneeIds");
+
+    private final UserRepository users;
+    private final Validator validator;
+    private final ObjectReader rowReader;
+    private final AssigneeIndex assigneeIndex;
+    private final UserDataVersions versions;
+
+    public UserImportService(UserRepository users, Validator validator, ObjectMapper objectMapper,
+                             AssigneeIndex assigneeIndex, UserDataVersions versions) {
+        this.users = users;
+        this.validator = validator;
+        this.rowReader = objectMapper.readerFor(UserPatchDto.class);
+        this.assigneeIndex = assigneeIndex;
+        this.versions = versions;
+    }
+
+    @FunctionalInterface
+    private interface RowParser {
+        UserPatchDto parse(String line) throws IOException;
+    }
+
+    public UserImportResultDto importCsv(Reader in) throws IOException {
+        var reader = new BufferedReader(in);
+        String header = reader.readLine();
+        if (header == null) return new Run().result();
+        // Excel and our own export (RequestExportService) start the file with a UTF-8 BOM
+        if (header.startsWith("\uFEFF")) header = header.substring(1);
+
+        var columns = parseCsvLine(header.strip());
+        var unknown = columns.stream().filter(c -> !CSV_COLUMNS.contains(c)).toList();
+        if (!columns.contains("email") || !unknown.isEmpty()) {
+            throw new IllegalArgumentException("CSV header must contain email and only " + CSV_COLUMNS
+                    + (unknown.isEmpty() ? "" : " - unknown: " + unknown));
+        }
+        return run(reader, 2, line -> csvRow(columns, parseCsvLine(line)));
+    }
+
+    public UserImportResultDto importNdjson(Reader in) throws IOException {
+        return run(new BufferedReader(in), 1, rowReader::readValue);
+    }
+
+    private UserImportResultDto run(BufferedReader reader, long firstLine, RowParser parser) throws IOException {
+        var run = new Run();
+        long lineNo = firstLine - 1;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            if (line.isBlank()) continue;
+            run.rows++;
+            try {
+                var row = normalize(parser.parse(line));
+                var violations = validator.validate(row);
+                if (!violations.isEmpty()) {
+                    run.fail(lineNo, violations.stream()
+                            .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                            .sorted()
+                            .collect(Collectors.joining("; ")));
+                    continue;
+                }
+                run.add(lineNo, row);
+            } catch (JsonProcessingException e) {
+                run.fail(lineNo, e.getOriginalMessage());
+            } catch (RuntimeException e) {
+                run.fail(lineNo, e.getMessage());
+            }
+        }
+        run.flush();
+
+        if (run.created + run.updated > 0) {
+            // Roles / assignee lists may have changed for many users at once
+            assigneeIndex.rebuild();
+            versions.bumpAll();
+        }
+        return run.result();
+    }
+
+    // # Same normalization as first login: trimmed, lower-case email
+    private static UserPatchDto normalize(UserPatchDto row) {
+        if (row == null || row.email() == null || row.email().isBlank()) {
+            throw new IllegalArgumentException("email is required");
+        }
+        return new UserPatchDto(row.email().trim().toLowerCase(Locale.ROOT), row.fullName(), row.role(),
+                row.availableLeaveDays(), row.contractLeaveDays(), row.workingSince(), row.assigneeIds());
+    }
+
+    private static UserPatchDto csvRow(List<String> columns, List<String> values) {
+        Map<String, String> v = new HashMap<>();
+        for (int i = 0; i < columns.size() && i < values.size(); i++) {
+            String value = values.get(i).strip();
+            if (!value.isEmpty()) v.put(columns.get(i), value);
+        }
+        return new UserPatchDto(
+                v.get("email"),
+                v.get("fullName"),
+                v.containsKey("role") ? Role.valueOf(v.get("role").toUpperCase(Locale.ROOT)) : null,
+                v.containsKey("availableLeaveDays") ? Integer.valueOf(v.get("availableLeaveDays")) : null,
+                v.containsKey("contractLeaveDays") ? Integer.valueOf(v.get("contractLeaveDays")) : null,
+                v.containsKey("workingSince") ? LocalDate.parse(v.get("workingSince")) : null,
+                v.containsKey("assigneeIds") ? Arrays.stream(v.get("assigneeIds").split(";")).map(String::strip).filter(s -> !s.isEmpty()).toList() : null);
+    }
+
+    // # RFC 4180 fields on one line - quoted fields may contain commas and "" escapes, not newlines
+    static List<String> parseCsvLine(String line) {
+        List<String> out = new ArrayList<>();
+        var field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') { field.append('"'); i++; }
+                else if (c == '"') quoted = false;
+                else field.append(c);
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                out.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        out.add(field.toString());
+        return out;
+    }
+
+    // # Per-request state: the pending batch and the running totals
+    private final class Run {
+        long rows, created, updated, failed;
+        final List<UserImportResultDto.RowError> errors = new ArrayList<>();
+        final List<UserPatchDto> batch = new ArrayList<>(BATCH_SIZE);
+        final List<Long> batchLines = new ArrayList<>(BATCH_SIZE);
+
+        void add(long line, UserPatchDto row) {
+            batch.add(row);
+            batchLines.add(line);
+            if (batch.size() >= BATCH_SIZE) flush();
+        }
+
+        void flush() {
+            if (batch.isEmpty()) return;
+            var result = users.upsertByEmail(batch);
+            created += result.inserted();
+            updated += result.updated();
+            result.errors().forEach((index, message) -> fail(batchLines.get(index), message));
+            batch.clear();
+            batchLines.clear();
+        }
+
+        void fail(long line, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) errors.add(new UserImportResultDto.RowError(line, message));
+        }
+
+        UserImportResultDto result() {
+            return new UserImportResultDto(rows, created, updated, failed, errors);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.digileave.digileave.Services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Working days per year as a precomputed bitmap plus prefix sums, so counting the working
+ * days in any date range costs O(1) per calendar year it spans. Holidays and company days
+ * off come from a local file (see {@code calendar/holidays-bg.txt} for the format).
+ * Only {@link #MIN_YEAR}..{@link #MAX_YEAR} are served - the Easter rule is not valid outside
+ * them, and the range also bounds the year cache.
+ */
+@Service
+public class WorkingDayCalendar {
+
+    public static final int MIN_YEAR = 1900;
+    public static final int MAX_YEAR = 2099;
+
+    // # One year: bit i = day-of-year (i + 1) is a working day; prefix[i] = working days before it
+    private record YearCalendar(BitSet working, int[] prefix) {
+        int count(int fromDayOfYear, int toDayOfYear) {
+            return prefix[toDayOfYear] - prefix[fromDayOfYear - 1];
+        }
+    }
+
+    private final List<MonthDay> yearlyHolidays = new ArrayList<>();
+    private final List<Integer> easterOffsets = new ArrayList<>();
+    private final List<LocalDate> daysOff = new ArrayList<>();
+    private final List<LocalDate> workingDays = new ArrayList<>();
+    private final Map<Integer, YearCalendar> years = new ConcurrentHashMap<>();
+
+    @Autowired
+    public WorkingDayCalendar(@Value("${digileave.calendar.file:classpath:calendar/holidays-bg.txt}") Resource file) {
+        try (var reader = new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+            parse(reader.lines().toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot read holiday calendar " + file, e);
+        }
+    }
+
+    // # Calendar from in-memory lines (tests, tooling)
+    public WorkingDayCalendar(List<String> lines) {
+        parse(lines);
+    }
+
+    private void parse(List<String> lines) {
+        for (String raw : lines) {
+            String line = raw.strip();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            String[] parts = line.split("\\s+");
+            String key = parts[0];
+
+            if (key.equals("WORK")) {
+                workingDays.add(LocalDate.parse(parts[1]));
+            } else if (key.startsWith("EASTER")) {
+                easterOffsets.add(key.length() == "EASTER".length() ? 0 : Integer.parseInt(key.substring("EASTER".length())));
+            } else if (key.length() == "MM-dd".length()) {
+                yearlyHolidays.add(MonthDay.parse("--" + key));
+            } else {
+                daysOff.add(LocalDate.parse(key));
+            }
+        }
+    }
+
+    public static boolean covers(LocalDate start, LocalDate end) {
+        return start.getYear() >= MIN_YEAR && end.getYear() <= MAX_YEAR;
+    }
+
+    // # Inclusive range; 0 when end is before start, 400 outside the supported years
+    public int workdays(LocalDate start, LocalDate end) {
+        if (start == null || end == null || end.isBefore(start)) return 0;
+        if (!covers(start, end)) throw unsupported();
+        int total = 0;
+        for (int y = start.getYear(); y <= end.getYear(); y++) {
+            var cal = year(y);
+            int from = (y == start.getYear()) ? start.getDayOfYear() : 1;
+            int to = (y == end.getYear()) ? end.getDayOfYear() : Year.of(y).length();
+            total += cal.count(from, to);
+        }
+        return total;
+    }
+
+    public boolean isWorkingDay(LocalDate day) {
+        if (!covers(day, day)) throw unsupported();
+        return year(day.getYear()).working().get(day.getDayOfYear() - 1);
+    }
+
+    private YearCalendar year(int year) {
+        return years.computeIfAbsent(year, this::build);
+    }
+
+    private static ResponseStatusException unsupported() {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Dates must be between years " + MIN_YEAR + " and " + MAX_YEAR);
+    }
+
+    private YearCalendar build(int year) {
+        int length = Year.of(year).length();
+        var working = new BitSet(length);
+        for (int i = 0; i < length; i++) {
+            var day = LocalDate.ofYearDay(year, i + 1);
+            if (!isWeekend(day)) working.set(i);
+        }
+
+        // # Fixed holidays: weekday -> off; weekend -> next free working day is off
+        List<LocalDate> onWeekend = new ArrayList<>();
+        for (MonthDay md : yearlyHolidays) {
+            if (!md.isValidYear(year)) continue;
+            var day = md.atYear(year);
+            if (isWeekend(day)) onWeekend.add(day); else working.clear(day.getDayOfYear() - 1);
+        }
+
+        var easter = orthodoxEaster(year);
+        for (int offset : easterOffsets) {
+            var day = easter.plusDays(offset);
+            if (day.getYear() == year) working.clear(day.getDayOfYear() - 1);
+        }
+
+        onWeekend.sort(null);
+        for (LocalDate holiday : onWeekend) {
+            int i = holiday.getDayOfYear(); // index of the next day
+            while (i < length && !working.get(i)) i++;
+            if (i < length) working.clear(i);
+        }
+
+        for (LocalDate day : daysOff) {
+            if (day.getYear() == year) working.clear(day.getDayOfYear() - 1);
+        }
+        for (LocalDate day : workingDays) {
+            if (day.getYear() == year) working.set(day.getDayOfYear() - 1);
+        }
+
+        int[] prefix = new int[length + 1];
+        for (int i = 0; i < length; i++) {
+            prefix[i + 1] = prefix[i] + (working.get(i) ? 1 : 0);
+        }
+        return new YearCalendar(working, prefix);
+    }
+
+    private static boolean isWeekend(LocalDate day) {
+        var dow = day.getDayOfWeek();
+        return dow == DayOfWeek.SATURDAY || dow == DayOfWeek.SUNDAY;
+    }
+
+    // # Meeus Julian algorithm, shifted to the Gregorian calendar (valid 1900-2099)
+    static LocalDate orthodoxEaster(int year) {
+        int a = year % 4;
+        int b = year % 7;
+        int c = year % 19;
+        int d = (19 * c + 15) % 30;
+        int e = (2 * a + 4 * b - d + 34) % 7;
+        int month = (d + e + 114) / 31;
+        int day = (d + e + 114) % 31 + 1;
+        return LocalDate.of(year, month, day).plusDays(13);
+    }
+}
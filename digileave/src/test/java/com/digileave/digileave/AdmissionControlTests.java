@@ -0,0 +1,94 @@
+package com.digileave.digileave;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import com.digileave.digileave.Config.MongoLatencyTracker;
+import com.digileave.digileave.Security.AdmissionControl;
+import com.digileave.digileave.Security.AdmissionControl.Outcome;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AdmissionControlTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final MongoLatencyTracker latency = new MongoLatencyTracker(registry);
+
+	private AdmissionControl admission(MockEnvironment env) {
+		return new AdmissionControl(env, latency, registry);
+	}
+
+	@Test
+	void onlyLimitedWritesMatch() {
+		var admission = admission(new MockEnvironment());
+		assertThat(admission.match("POST", "/requests").name()).isEqualTo("create-request");
+		assertThat(admission.match("PATCH", "/approver/request/abc123").name()).isEqualTo("decide");
+		assertThat(admission.match("GET", "/requests")).isNull();
+		assertThat(admission.match("PATCH", "/requests/abc123/cancel")).isNull();
+		assertThat(admission(new MockEnvironment().withProperty("digileave.admission.enabled", "false"))
+				.match("POST", "/requests")).isNull();
+	}
+
+	@Test
+	void burstThenThrottledPerUser() {
+		var admission = admission(new MockEnvironment()
+				.withProperty("digileave.admission.create-request.burst", "3")
+				.withProperty("digileave.admission.create-request.per-second", "0.1"));
+		var route = admission.match("POST", "/requests");
+		for (int i = 0; i < 3; i++) {
+			assertThat(admission.admit(route, "alice").admitted()).isTrue();
+			admission.release();
+		}
+		var throttled = admission.admit(route, "alice");
+		assertThat(throttled.outcome()).isEqualTo(Outcome.THROTTLED);
+		assertThat(throttled.retryAfterSeconds()).isBetween(1L, 10L);
+		// Another user has their own bucket
+		assertThat(admission.admit(route, "bob").admitted()).isTrue();
+		assertThat(registry.get("admission.requests").tag("route", "create-request").tag("outcome", "throttled")
+				.counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void concurrencyCapShedsUntilReleased() {
+		var admission = admission(new MockEnvironment()
+				.withProperty("digileave.admission.max-concurrent-writes", "1")
+				.withProperty("digileave.admission.decide.burst", "1"));
+		var route = admission.match("PATCH", "/approver/request/1");
+		assertThat(admission.admit(route, "alice").admitted()).isTrue();
+		assertThat(admission.admit(route, "bob").outcome()).isEqualTo(Outcome.SHED_CONCURRENCY);
+		admission.release();
+		// Being shed didn't spend bob's only token
+		assertThat(admission.admit(route, "bob").admitted()).isTrue();
+		admission.release();
+		// ... and a throttled request hands its permit back
+		assertThat(admission.admit(route, "bob").outcome()).isEqualTo(Outcome.THROTTLED);
+		assertThat(admission.admit(route, "carol").admitted()).isTrue();
+	}
+
+	@Test
+	void slowMongoShedsWrites() {
+		var admission = admission(new MockEnvironment().withProperty("digileave.admission.mongo-latency-threshold-ms", "100"));
+		var route = admission.match("POST", "/requests");
+		for (int i = 0; i < 50; i++) latency.record(1_000_000_000L);
+		var shed = admission.admit(route, "alice");
+		assertThat(shed.outcome()).isEqualTo(Outcome.SHED_LATENCY);
+		assertThat(shed.retryAfterSeconds()).isEqualTo(1);
+	}
+
+	@Test
+	void onlySingleDocumentWritesFeedTheLatencyAverage() {
+		assertThat(MongoLatencyTracker.isSingleDocumentWrite("findAndModify", BsonDocument.parse("{findAndModify: 'requests'}"))).isTrue();
+		assertThat(MongoLatencyTracker.isSingleDocumentWrite("insert", BsonDocument.parse("{insert: 'requests', documents: [{}]}"))).isTrue();
+		assertThat(MongoLatencyTracker.isSingleDocumentWrite("update", BsonDocument.parse("{update: 'users', updates: [{q: {}, u: {}}]}"))).isTrue();
+
+		// Bulk import / recount batches, updateMany and everything that isn't a write
+		assertThat(MongoLatencyTracker.isSingleDocumentWrite("insert", BsonDocument.parse("{insert: 'users', documents: [{}, {}]}"))).isFalse();
+		assertThat(MongoLatencyTracker.isSingleDocumentWrite("update", BsonDocument.parse("{update: 'users', updates: [{q: {}, u: {}}, {q: {}, u: {}}]}"))).isFalse();
+		assertThat(MongoLatencyTracker.isSingleDocumentWrite("update", BsonDocument.parse("{update: 'users', updates: [{q: {}, u: [], multi: true}]}"))).isFalse();
+		assertThat(MongoLatencyTracker.isSingleDocumentWrite("aggregate", BsonDocument.parse("{aggregate: 'requests'}"))).isFalse();
+		assertThat(MongoLatencyTracker.isSingleDocumentWrite("getMore", BsonDocument.parse("{getMore: 1}"))).isFalse();
+	}
+}
@@ -0,0 +1,234 @@
+package com.digileave.digileave;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.digileave.digileave.Models.Request;
+import com.digileave.digileave.Models.User;
+import com.digileave.digileave.Models.enums.LeaveType;
+import com.digileave.digileave.Models.enums.Status;
+import com.digileave.digileave.Repositories.LeaveUsageRepository;
+import com.digileave.digileave.Repositories.LeaveUsageRepositoryCustom.Dimension;
+import com.digileave.digileave.Repositories.LeaveUsageRepositoryCustom.Increment;
+import com.digileave.digileave.Repositories.LeaveUsageRepositoryCustom.UsageRow;
+import com.digileave.digileave.Repositories.RequestRepository;
+import com.digileave.digileave.Repositories.UserRepository;
+
+@SpringBootTest
+@ActiveProfiles("inmemory")
+class InMemoryRepositoriesTests {
+
+	@Autowired
+	private UserRepository users;
+
+	@Autowired
+	private RequestRepository requests;
+
+	@Autowired
+	private LeaveUsageRepository usage;
+
+	@BeforeEach
+	void clean() {
+		usage.deleteAll();
+		requests.deleteAll();
+		users.deleteAll();
+	}
+
+	private User user(String email) {
+		var u = new User();
+		u.setEmail(email);
+		u.setFullName(email);
+		u.setWorkingSince(LocalDate.of(2020, 2, 29));
+		return users.save(u);
+	}
+
+	private Request request(String userId) {
+		var r = new Request();
+		r.setUserId(userId);
+		r.setWorkdaysCount(3);
+		return requests.save(r);
+	}
+
+	@Test
+	void emailIndexIsUniqueAndFollowsUpdates() {
+		var u = user("a@digitoll.bg");
+		assertThat(users.findByEmail("a@digitoll.bg")).map(User::getId).contains(u.getId());
+		assertThatThrownBy(() -> user("a@digitoll.bg")).isInstanceOf(DuplicateKeyException.class);
+
+		u.setEmail("b@digitoll.bg");
+		users.save(u);
+		assertThat(users.existsByEmail("a@digitoll.bg")).isFalse();
+		assertThat(users.findByEmail("b@digitoll.bg")).isPresent();
+	}
+
+	@Test
+	void userIdIndexServesDerivedAndKeysetQueries() {
+		var a = user("a@digitoll.bg");
+		var b = user("b@digitoll.bg");
+		var r1 = request(a.getId());
+		var r2 = request(b.getId());
+		var r3 = request(a.getId());
+
+		assertThat(requests.findByUserId(a.getId())).extracting(Request::getId).containsExactlyInAnyOrder(r1.getId(), r3.getId());
+		assertThat(requests.findByUserIdIn(List.of(a.getId(), b.getId()))).hasSize(3);
+
+		var page = requests.findByUserIdInOrderByIdDesc(List.of(a.getId(), b.getId()), Limit.of(2));
+		assertThat(page).extracting(Request::getId).containsExactly(r3.getId(), r2.getId());
+		var next = requests.findByUserIdInAndIdLessThanOrderByIdDesc(List.of(a.getId(), b.getId()), r2.getId(), Limit.of(2));
+		assertThat(next).extracting(Request::getId).containsExactly(r1.getId());
+	}
+
+	@Test
+	void queryByExampleMatchesNonNullProbeFields() {
+		var a = user("a@digitoll.bg");
+		var b = user("b@digitoll.bg");
+		var r1 = request(a.getId());
+		request(b.getId());
+		requests.decideIfPending(r1.getId(), null, Status.APPROVED, "x", null);
+
+		var probe = new Request();
+		probe.setUserId(a.getId());
+		probe.setStatus(Status.APPROVED);
+		var example = Example.of(probe, ExampleMatcher.matching().withIgnorePaths("workdaysCount", "decision_seen", "createdAt"));
+		assertThat(requests.findAll(example)).extracting(Request::getId).containsExactly(r1.getId());
+		assertThat(requests.findOne(example)).map(Request::getId).contains(r1.getId());
+		assertThat(requests.count(example)).isEqualTo(1);
+
+		probe.setStatus(Status.PENDING);
+		assertThat(requests.exists(example)).isFalse();
+		assertThat(requests.count(Example.of(probe, ExampleMatcher.matchingAny()
+			.withIgnorePaths("workdaysCount", "decision_seen", "createdAt")))).isEqualTo(2);
+
+		probe.setUserId(a.getId().toUpperCase(Locale.ROOT));
+		probe.setStatus(null);
+		assertThat(requests.count(Example.of(probe, ExampleMatcher.matching().withIgnoreCase()
+			.withIgnorePaths("workdaysCount", "decision_seen", "createdAt")))).isEqualTo(1);
+	}
+
+	private record EmailOnly(String email) {}
+
+	private interface NameOnly {
+		String getFullName();
+	}
+
+	@Test
+	void queryByExampleHonoursStringMatchersAndTheFluentApi() {
+		var anna = user("Anna@digitoll.bg");
+		user("boris@digitoll.bg");
+		user("carl@example.com");
+
+		var probe = new User();
+		probe.setEmail("@DIGITOLL.bg");
+		var byDomain = Example.of(probe, ExampleMatcher.matching()
+			.withIgnorePaths("role", "availableLeaveDays", "contractLeaveDays", "assigneeIds", "unreadDecisions")
+			.withMatcher("email", m -> m.endsWith().ignoreCase()));
+		assertThat(users.count(byDomain)).isEqualTo(2);
+
+		List<User> newestFirst = users.findBy(byDomain, q -> q.sortBy(Sort.by(Sort.Direction.DESC, "email")).all());
+		assertThat(newestFirst).extracting(User::getEmail).containsExactly("boris@digitoll.bg", "Anna@digitoll.bg");
+		User first = users.findBy(byDomain, q -> q.sortBy(Sort.by("email")).limit(1).firstValue());
+		assertThat(first.getId()).isEqualTo(anna.getId());
+		List<EmailOnly> emails = users.findBy(byDomain, q -> q.as(EmailOnly.class).sortBy(Sort.by("email")).all());
+		assertThat(emails).containsExactly(new EmailOnly("Anna@digitoll.bg"), new EmailOnly("boris@digitoll.bg"));
+		NameOnly name = users.findBy(byDomain, q -> q.as(NameOnly.class).sortBy(Sort.by("email")).firstValue());
+		assertThat(name.getFullName()).isEqualTo("Anna@digitoll.bg");
+		User projected = users.findBy(byDomain, q -> q.project("email").sortBy(Sort.by("email")).firstValue());
+		assertThat(projected.getEmail()).isEqualTo("Anna@digitoll.bg");
+		assertThat(projected.getFullName()).isNull();
+		Page<User> second = users.findBy(byDomain, q -> q.page(PageRequest.of(1, 1, Sort.by("email"))));
+		assertThat(second.getContent()).extracting(User::getEmail).containsExactly("boris@digitoll.bg");
+		assertThat(second.getTotalElements()).isEqualTo(2);
+		assertThatThrownBy(() -> users.findBy(byDomain, q -> q.oneValue()))
+			.isInstanceOf(IncorrectResultSizeDataAccessException.class);
+	}
+
+	@Test
+	void decideIfPendingIsConditional() {
+		var a = user("a@digitoll.bg");
+		var r = request(a.getId());
+
+		assertThat(requests.decideIfPending(r.getId(), List.of("someone-else"), Status.APPROVED, "x", null)).isEmpty();
+		assertThat(requests.decideIfPending(r.getId(), null, Status.APPROVED, "x", null)).isPresent();
+		assertThat(requests.decideIfPending(r.getId(), null, Status.REJECTED, "x", null)).isEmpty();
+		assertThat(requests.findById(r.getId())).map(Request::getStatus).contains(Status.APPROVED);
+	}
+
+	@Test
+	void cancelIfPendingCannotOverwriteADecision() {
+		var a = user("a@digitoll.bg");
+		var pending = request(a.getId());
+		var approved = request(a.getId());
+		requests.decideIfPending(approved.getId(), null, Status.APPROVED, "x", null);
+
+		assertThat(requests.cancelIfPending(pending.getId(), "someone-else", null)).isEmpty();
+		assertThat(requests.cancelIfPending(approved.getId(), a.getId(), null)).isEmpty();
+		assertThat(requests.findById(approved.getId())).map(Request::getStatus).contains(Status.APPROVED);
+		assertThat(requests.cancelIfPending(pending.getId(), a.getId(), null)).map(Request::getStatus).contains(Status.CANCELLED);
+	}
+
+	@Test
+	void decisionSeenUpdatesReportWhatTheyFlipped() {
+		var a = user("a@digitoll.bg");
+		var r1 = request(a.getId());
+		var r2 = request(a.getId());
+		for (var r : List.of(r1, r2)) {
+			requests.decideIfPending(r.getId(), null, Status.REJECTED, "x", null);
+			users.recordDecision(a.getId(), 0);
+		}
+		assertThat(users.unreadDecisionsOf(a.getId())).isEqualTo(2);
+		assertThat(requests.countUnseenDecisionsByUser()).containsEntry(a.getId(), 2);
+
+		assertThat(requests.markDecisionSeen(r1.getId(), "someone-else")).isEmpty();
+		assertThat(requests.markDecisionSeen(r1.getId(), a.getId())).map(Request::getDecision_Seen).contains(false);
+		assertThat(requests.markDecisionSeen(r1.getId(), a.getId())).map(Request::getDecision_Seen).contains(true);
+		assertThat(requests.markAllDecisionsSeen(a.getId())).isEqualTo(1);
+		assertThat(requests.markAllDecisionsSeen(a.getId())).isZero();
+
+		// Decisions from before the counter existed were never counted up - it stops at 0
+		users.incrementUnreadDecisions(a.getId(), -5);
+		assertThat(users.findById(a.getId()).orElseThrow().getUnreadDecisions()).isZero();
+	}
+
+	@Test
+	void usageRollupsMatchARebuildFromTheRequests() {
+		var u = user("a@digitoll.bg");
+		var approved = request(u.getId());
+		approved.setStartDate(LocalDate.of(2026, 3, 30));
+		approved.setType(LeaveType.ANNUAL_PAID_LEAVE);
+		approved.setStatus(Status.APPROVED);
+		requests.save(approved);
+		var rejected = request(u.getId());
+		rejected.setStartDate(LocalDate.of(2026, 3, 2));
+		rejected.setType(LeaveType.ANNUAL_PAID_LEAVE);
+		rejected.setStatus(Status.REJECTED);
+		requests.save(rejected);
+
+		usage.increment(List.of(Increment.of(approved, Status.APPROVED), Increment.of(rejected, Status.REJECTED)));
+		var incremental = usage.summarize(null, "2026-01", "2026-12", null, EnumSet.allOf(Dimension.class));
+		assertThat(incremental).containsExactly(new UsageRow(u.getId(), "2026-03", LeaveType.ANNUAL_PAID_LEAVE, 3, 1, 1, 0));
+
+		assertThat(usage.rebuild()).isEqualTo(1);
+		assertThat(usage.summarize(null, "2026-01", "2026-12", null, EnumSet.allOf(Dimension.class))).isEqualTo(incremental);
+		assertThat(usage.summarize(List.of(u.getId()), "2026-04", null, null, Set.of())).isEmpty();
+	}
+}
@@ -0,0 +1,114 @@
+package com.digileave.digileave;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.digileave.digileave.Models.Request;
+import com.digileave.digileave.Models.enums.Status;
+import com.digileave.digileave.Repositories.RequestRepository;
+import com.digileave.digileave.Repositories.RequestRepositoryImpl;
+
+// Needs a real MongoDB - runs only when MONGO_URI is set
+@SpringBootTest
+@EnabledIfEnvironmentVariable(named = "MONGO_URI", matches = ".+")
+class InboxQueryPlanTests {
+
+	private static final List<String> ASSIGNEES = List.of("inbox-plan-a", "inbox-plan-b", "inbox-plan-c");
+
+	@Autowired
+	private MongoTemplate mongo;
+
+	@Autowired
+	private RequestRepository requests;
+
+	@BeforeEach
+	void seed() {
+		cleanup();
+		List<Request> rows = new ArrayList<>();
+		for (int i = 0; i < 300; i++) {
+			var r = new Request();
+			r.setUserId(ASSIGNEES.get(i % ASSIGNEES.size()));
+			r.setStartDate(LocalDate.of(2025, 1, 1).plusDays(i));
+			r.setEndDate(LocalDate.of(2025, 1, 1).plusDays(i));
+			r.setStatus(i % 4 == 0 ? Status.PENDING : Status.APPROVED);
+			r.setCreatedAt(Instant.parse("2025-01-01T00:00:00Z").plusSeconds(i));
+			rows.add(r);
+		}
+		requests.saveAll(rows);
+	}
+
+	@AfterEach
+	void cleanup() {
+		mongo.remove(new Query(Criteria.where("userId").in(ASSIGNEES)), Request.class);
+	}
+
+	@Test
+	void inboxPageUsesIndexWithoutBlockingSort() {
+		var query = RequestRepositoryImpl.inboxQuery(ASSIGNEES).limit(50);
+		var explain = mongo.getCollection(mongo.getCollectionName(Request.class))
+			.find(query.getQueryObject())
+			.projection(query.getFieldsObject())
+			.sort(query.getSortObject())
+			.limit(50)
+			.explain();
+
+		var plan = winningPlan(explain);
+		assertThat(plan).doesNotContain("COLLSCAN").contains("IXSCAN").contains("user_status_created");
+		assertThat(plan).doesNotContain("\"stage\": \"SORT\"");
+
+		var page = requests.findPendingInbox(ASSIGNEES, 50);
+		assertThat(page).hasSize(50);
+		assertThat(page.get(0).getCreatedAt()).isAfter(page.get(49).getCreatedAt());
+	}
+
+	@Test
+	void adminInboxPageUsesIndexWithoutBlockingSort() {
+		var query = RequestRepositoryImpl.inboxQuery(null).limit(50);
+		var explain = mongo.getCollection(mongo.getCollectionName(Request.class))
+			.find(query.getQueryObject())
+			.projection(query.getFieldsObject())
+			.sort(query.getSortObject())
+			.limit(50)
+			.explain();
+
+		var plan = winningPlan(explain);
+		assertThat(plan).doesNotContain("COLLSCAN").contains("IXSCAN")
+			.contains("\"indexName\": \"status_created\"");
+		assertThat(plan).doesNotContain("\"stage\": \"SORT\"");
+
+		var page = requests.findPendingInbox(null, 50);
+		assertThat(page).hasSize(50).allMatch(r -> r.getStatus() == Status.PENDING);
+		assertThat(page.get(0).getCreatedAt()).isAfterOrEqualTo(page.get(49).getCreatedAt());
+	}
+
+	@Test
+	void inboxCountIsCoveredByIndex() {
+		var query = RequestRepositoryImpl.inboxQuery(ASSIGNEES);
+		var explain = mongo.getDb().runCommand(new Document("explain",
+			new Document("count", mongo.getCollectionName(Request.class)).append("query", query.getQueryObject())));
+
+		var plan = winningPlan(explain);
+		assertThat(plan).doesNotContain("COLLSCAN").doesNotContain("FETCH");
+		assertThat(requests.countPendingInbox(ASSIGNEES)).isEqualTo(75);
+	}
+
+	private static String winningPlan(Document explain) {
+		var planner = explain.get("queryPlanner", Document.class);
+		return planner.get("winningPlan", Document.class).toJson();
+	}
+}
@@ -0,0 +1,177 @@
+package com.digileave.digileave;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import com.digileave.digileave.DTOs.BulkDecisionResultDto;
+import com.digileave.digileave.DTOs.BulkDecisionResultDto.Outcome;
+import com.digileave.digileave.Models.Request;
+import com.digileave.digileave.Models.User;
+import com.digileave.digileave.Models.enums.LeaveType;
+import com.digileave.digileave.Models.enums.Role;
+import com.digileave.digileave.Models.enums.Status;
+import com.digileave.digileave.Repositories.LeaveUsageRepository;
+import com.digileave.digileave.Repositories.RequestRepository;
+import com.digileave.digileave.Repositories.UserRepository;
+import com.digileave.digileave.Services.AssigneeIndex;
+import com.digileave.digileave.Services.LeaveDecisionService;
+
+@SpringBootTest
+@ActiveProfiles("inmemory")
+class LeaveDecisionServiceTests {
+
+	@Autowired
+	private LeaveDecisionService decisions;
+
+	@Autowired
+	private UserRepository users;
+
+	@Autowired
+	private RequestRepository requests;
+
+	@Autowired
+	private AssigneeIndex assigneeIndex;
+
+	// Spied so a test can make the rollup write fail after the balances were written
+	@MockitoSpyBean
+	private LeaveUsageRepository usage;
+
+	private User anna, boris, outsider, approver;
+
+	@BeforeEach
+	void clean() {
+		usage.deleteAll();
+		requests.deleteAll();
+		users.deleteAll();
+		anna = user("anna@digitoll.bg");
+		boris = user("boris@digitoll.bg");
+		outsider = user("outsider@digitoll.bg");
+		approver = user("approver@digitoll.bg");
+		approver.setRole(Role.APPROVER);
+		approver.setAssigneeIds(new ArrayList<>(List.of(anna.getId(), boris.getId())));
+		users.save(approver);
+		assigneeIndex.put(approver);
+	}
+
+	private User user(String email) {
+		var u = new User();
+		u.setEmail(email);
+		u.setFullName(email);
+		u.setAvailableLeaveDays(20);
+		return users.save(u);
+	}
+
+	private Request request(User owner, int workdays) {
+		var r = new Request();
+		r.setUserId(owner.getId());
+		r.setStartDate(LocalDate.of(2026, 3, 2));
+		r.setEndDate(LocalDate.of(2026, 3, 2).plusDays(workdays - 1));
+		r.setWorkdaysCount(workdays);
+		r.setType(LeaveType.ANNUAL_PAID_LEAVE);
+		return requests.save(r);
+	}
+
+	private User reload(User u) {
+		return users.findById(u.getId()).orElseThrow();
+	}
+
+	@Test
+	void bulkDecisionReportsEveryOutcomeAndIncrementsPerOwner() {
+		var a1 = request(anna, 3);
+		var a2 = request(anna, 2);
+		var b1 = request(boris, 4);
+		var foreign = request(outsider, 1);
+		var decided = request(anna, 1);
+		decided.setStatus(Status.REJECTED);
+		requests.save(decided);
+
+		var results = decisions.decideAll(approver.getId(),
+				List.of(a1.getId(), a2.getId(), b1.getId(), foreign.getId(), decided.getId(), "missing"), Status.APPROVED);
+
+		assertThat(results).extracting(BulkDecisionResultDto::outcome).containsExactly(
+				Outcome.DECIDED, Outcome.DECIDED, Outcome.DECIDED, Outcome.FORBIDDEN, Outcome.ALREADY_DECIDED, Outcome.NOT_FOUND);
+		assertThat(results.get(0).request()).isNotNull();
+		assertThat(results.get(3).request()).isNull();
+
+		// One $inc per owner: anna 3 + 2 days and two unread decisions, boris 4 days and one
+		assertThat(reload(anna).getAvailableLeaveDays()).isEqualTo(15);
+		assertThat(reload(anna).getUnreadDecisions()).isEqualTo(2);
+		assertThat(reload(boris).getAvailableLeaveDays()).isEqualTo(16);
+		assertThat(reload(boris).getUnreadDecisions()).isEqualTo(1);
+		assertThat(reload(outsider).getAvailableLeaveDays()).isEqualTo(20);
+		assertThat(requests.findById(foreign.getId())).map(Request::getStatus).contains(Status.PENDING);
+	}
+
+	@Test
+	void failedFollowUpWriteRestoresTheBatch() {
+		var a1 = request(anna, 3);
+		var b1 = request(boris, 4);
+		doThrow(new IllegalStateException("rollup write failed")).when(usage).increment(any());
+
+		assertThatThrownBy(() -> decisions.decideAll(approver.getId(), List.of(a1.getId(), b1.getId()), Status.APPROVED))
+				.isInstanceOf(IllegalStateException.class);
+
+		assertThat(requests.findAllById(List.of(a1.getId(), b1.getId())))
+				.extracting(Request::getStatus).containsOnly(Status.PENDING);
+		assertThat(requests.findAllById(List.of(a1.getId(), b1.getId())))
+				.extracting(Request::getDecisionBatch).containsOnlyNulls();
+		assertThat(reload(anna).getAvailableLeaveDays()).isEqualTo(20);
+		assertThat(reload(anna).getUnreadDecisions()).isZero();
+		assertThat(reload(boris).getAvailableLeaveDays()).isEqualTo(20);
+
+		// Restored requests can be decided again
+		reset(usage);
+		assertThat(decisions.decideAll(approver.getId(), List.of(a1.getId()), Status.REJECTED))
+				.extracting(BulkDecisionResultDto::outcome).containsExactly(Outcome.DECIDED);
+	}
+
+	@Test
+	void failedRollupWriteRestoresASingleDecision() {
+		var a1 = request(anna, 3);
+		doThrow(new IllegalStateException("rollup write failed")).when(usage).increment(any());
+
+		assertThatThrownBy(() -> decisions.decide(approver.getId(), a1.getId(), Status.APPROVED))
+				.isInstanceOf(IllegalStateException.class);
+
+		assertThat(requests.findById(a1.getId())).map(Request::getStatus).contains(Status.PENDING);
+		assertThat(reload(anna).getAvailableLeaveDays()).isEqualTo(20);
+		assertThat(reload(anna).getUnreadDecisions()).isZero();
+
+		reset(usage);
+		assertThat(decisions.decide(approver.getId(), a1.getId(), Status.APPROVED).getStatus()).isEqualTo(Status.APPROVED);
+		assertThat(reload(anna).getAvailableLeaveDays()).isEqualTo(17);
+	}
+
+	@Test
+	void overlappingBatchesWithTheSameStampClaimOnlyTheirOwnIds() {
+		var a1 = request(anna, 1);
+		var a2 = request(anna, 1);
+		var b1 = request(boris, 1);
+		// A double-click: same approver, same millisecond
+		var decidedAt = Instant.now();
+
+		var first = requests.decideAllIfPending(List.of(a1.getId(), a2.getId()), Status.APPROVED, approver.getId(), decidedAt);
+		var second = requests.decideAllIfPending(List.of(a2.getId(), b1.getId()), Status.APPROVED, approver.getId(), decidedAt);
+
+		assertThat(first).containsExactlyInAnyOrder(a1.getId(), a2.getId());
+		assertThat(second).containsExactly(b1.getId());
+		assertThat(requests.findById(a2.getId()).orElseThrow().getDecisionBatch())
+				.isEqualTo(requests.findById(a1.getId()).orElseThrow().getDecisionBatch())
+				.isNotEqualTo(requests.findById(b1.getId()).orElseThrow().getDecisionBatch());
+	}
+}
@@ -0,0 +1,133 @@
+package com.digileave.digileave;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.digileave.digileave.DTOs.RequestCreateDto;
+import com.digileave.digileave.Models.enums.LeaveType;
+import com.digileave.digileave.Models.enums.Status;
+import com.digileave.digileave.Repositories.RequestRepository;
+import com.digileave.digileave.Services.AbsenceCalendar;
+import com.digileave.digileave.Services.LeaveRequestService;
+
+@SpringBootTest
+@ActiveProfiles("inmemory")
+class LeaveRequestServiceTests {
+
+	@Autowired
+	private LeaveRequestService leaveRequests;
+
+	@Autowired
+	private RequestRepository requests;
+
+	@Autowired
+	private AbsenceCalendar calendar;
+
+	@BeforeEach
+	void clean() {
+		requests.deleteAll();
+		calendar.rebuild();
+	}
+
+	private static RequestCreateDto period(LocalDate start, LocalDate end) {
+		return new RequestCreateDto(start, end, null, LeaveType.ANNUAL_PAID_LEAVE, null, null, null);
+	}
+
+	@Test
+	void overlappingLiveRequestIsRejected() {
+		leaveRequests.create("u1", period(LocalDate.of(2025, 6, 2), LocalDate.of(2025, 6, 6)));
+
+		assertThatThrownBy(() -> leaveRequests.create("u1", period(LocalDate.of(2025, 6, 6), LocalDate.of(2025, 6, 10))))
+			.isInstanceOfSatisfying(ResponseStatusException.class,
+				e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+
+		// Adjacent period and other users are fine
+		leaveRequests.create("u1", period(LocalDate.of(2025, 6, 9), LocalDate.of(2025, 6, 10)));
+		leaveRequests.create("u2", period(LocalDate.of(2025, 6, 2), LocalDate.of(2025, 6, 6)));
+		assertThat(requests.count()).isEqualTo(3);
+	}
+
+	@Test
+	void overlongPeriodIsRejected() {
+		assertThatThrownBy(() -> leaveRequests.create("u1", period(LocalDate.of(1, 1, 1), LocalDate.of(9999, 12, 31))))
+			.isInstanceOfSatisfying(ResponseStatusException.class,
+				e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+		assertThat(requests.count()).isZero();
+
+		// A full leap year is still accepted
+		leaveRequests.create("u1", period(LocalDate.of(2028, 1, 1), LocalDate.of(2028, 12, 31)));
+	}
+
+	@Test
+	void calendarSpreadsAbsencesOverQueriedDays() {
+		// Starts before the queried range and ends inside it
+		var longLeave = leaveRequests.create("u1", period(LocalDate.of(2025, 5, 26), LocalDate.of(2025, 6, 3)));
+		leaveRequests.create("u2", period(LocalDate.of(2025, 6, 3), LocalDate.of(2025, 6, 4)));
+
+		var days = calendar.between(LocalDate.of(2025, 6, 2), LocalDate.of(2025, 6, 5), who -> true);
+		assertThat(days.keySet()).containsExactly(LocalDate.of(2025, 6, 2), LocalDate.of(2025, 6, 3), LocalDate.of(2025, 6, 4));
+		assertThat(days.get(LocalDate.of(2025, 6, 3))).hasSize(2);
+		assertThat(calendar.between(LocalDate.of(2025, 6, 2), LocalDate.of(2025, 6, 5), "u2"::equals)
+			.get(LocalDate.of(2025, 6, 2))).isNull();
+
+		calendar.remove(longLeave.getId());
+		assertThat(calendar.between(LocalDate.of(2025, 6, 2), LocalDate.of(2025, 6, 5), who -> true).keySet())
+			.containsExactly(LocalDate.of(2025, 6, 3), LocalDate.of(2025, 6, 4));
+	}
+
+	@Test
+	void rejectedRequestDoesNotBlock() {
+		var first = leaveRequests.create("u1", period(LocalDate.of(2025, 6, 2), LocalDate.of(2025, 6, 6)));
+		first.setStatus(Status.REJECTED);
+		requests.save(first);
+
+		leaveRequests.create("u1", period(LocalDate.of(2025, 6, 3), LocalDate.of(2025, 6, 4)));
+		assertThat(requests.count()).isEqualTo(2);
+	}
+
+	@Test
+	void parallelOverlappingSubmissionsCannotBothSucceed() throws Exception {
+		int threads = 16;
+		var pool = Executors.newFixedThreadPool(threads);
+		var start = new CountDownLatch(1);
+		List<Future<Boolean>> results = new ArrayList<>();
+		try {
+			for (int i = 0; i < threads; i++) {
+				int shift = i % 3;
+				results.add(pool.submit(() -> {
+					start.await();
+					try {
+						leaveRequests.create("u1", period(LocalDate.of(2025, 6, 2 + shift), LocalDate.of(2025, 6, 6)));
+						return true;
+					} catch (ResponseStatusException e) {
+						return false;
+					}
+				}));
+			}
+			start.countDown();
+
+			int created = 0;
+			for (var r : results) if (r.get(10, TimeUnit.SECONDS)) created++;
+			assertThat(created).isEqualTo(1);
+			assertThat(requests.findByUserId("u1")).hasSize(1);
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+}
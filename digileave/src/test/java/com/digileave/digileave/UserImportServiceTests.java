@@ -0,0 +1,162 @@
+package com.digileave.digileave;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.StringReader;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.digileave.digileave.DTOs.UserImportResultDto;
+import com.digileave.digileave.DTOs.UserImportResultDto.RowError;
+import com.digileave.digileave.Models.User;
+import com.digileave.digileave.Models.enums.Role;
+import com.digileave.digileave.Repositories.UserRepository;
+import com.digileave.digileave.Services.AssigneeIndex;
+import com.digileave.digileave.Services.UserImportService;
+
+@SpringBootTest
+@ActiveProfiles("inmemory")
+class UserImportServiceTests {
+
+	@Autowired
+	private UserImportService userImport;
+
+	@Autowired
+	private UserRepository users;
+
+	@Autowired
+	private AssigneeIndex assigneeIndex;
+
+	@BeforeEach
+	void clean() {
+		users.deleteAll();
+	}
+
+	private UserImportResultDto csv(String... lines) throws Exception {
+		return userImport.importCsv(new StringReader(String.join("\n", lines)));
+	}
+
+	private User byEmail(String email) {
+		return users.findByEmail(email).orElseThrow();
+	}
+
+	@Test
+	void quotedFieldsKeepCommasAndEscapedQuotes() throws Exception {
+		var result = csv(
+			"email,fullName,role,assigneeIds",
+			"\"a@digitoll.bg\",\"Petrov, Ivan \"\"Vanko\"\"\",approver,\"x; y\"");
+
+		assertThat(result.created()).isEqualTo(1);
+		assertThat(result.errors()).isEmpty();
+		var a = byEmail("a@digitoll.bg");
+		assertThat(a.getFullName()).isEqualTo("Petrov, Ivan \"Vanko\"");
+		assertThat(a.getRole()).isEqualTo(Role.APPROVER);
+		assertThat(a.getAssigneeIds()).containsExactly("x", "y");
+	}
+
+	@Test
+	void leadingByteOrderMarkIsIgnored() throws Exception {
+		var result = csv("\uFEFFemail,fullName", "bom@digitoll.bg,Ivan Ivanov");
+
+		assertThat(result.created()).isEqualTo(1);
+		assertThat(byEmail("bom@digitoll.bg").getFullName()).isEqualTo("Ivan Ivanov");
+	}
+
+	@Test
+	void unknownHeaderColumnsRejectTheFile() {
+		assertThatThrownBy(() -> csv("email,fullName,salary", "a@digitoll.bg,Ivan,1000"))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessageContaining("salary");
+		assertThatThrownBy(() -> csv("fullName", "Ivan"))
+			.isInstanceOf(IllegalArgumentException.class);
+		assertThat(users.count()).isZero();
+	}
+
+	@Test
+	void invalidRowsAreReportedByFileLine() throws Exception {
+		var result = csv(
+			"email,fullName,availableLeaveDays,workingSince,role",
+			"ok@digitoll.bg,Ivan Ivanov,20,2020-01-15,user",
+			"",
+			"not-an-email,Ivan Ivanov,20,,",
+			"big@digitoll.bg,Ivan Ivanov,99,,",
+			"nan@digitoll.bg,Ivan Ivanov,twenty,,",
+			",Ivan Ivanov,20,,",
+			"role@digitoll.bg,Ivan Ivanov,20,,boss",
+			"date@digitoll.bg,Ivan Ivanov,20,15.01.2020,");
+
+		assertThat(result.rows()).isEqualTo(7);
+		assertThat(result.created()).isEqualTo(1);
+		assertThat(result.failed()).isEqualTo(6);
+		// Line 1 is the header and line 3 is blank - both still count towards the numbering
+		assertThat(result.errors()).extracting(RowError::line).containsExactly(4L, 5L, 6L, 7L, 8L, 9L);
+		assertThat(result.errors().get(0).message()).contains("email");
+		assertThat(result.errors().get(1).message()).contains("availableLeaveDays");
+		assertThat(result.errors().get(3).message()).contains("email is required");
+		assertThat(byEmail("ok@digitoll.bg").getWorkingSince()).isEqualTo(LocalDate.of(2020, 1, 15));
+	}
+
+	@Test
+	void repeatedEmailInOneBatchUpdatesTheSameUser() throws Exception {
+		var result = csv(
+			"email,availableLeaveDays",
+			"Dup@Digitoll.bg,10",
+			"dup@digitoll.bg ,12");
+
+		assertThat(result.created()).isEqualTo(1);
+		assertThat(result.updated()).isEqualTo(1);
+		assertThat(result.failed()).isZero();
+		assertThat(users.count()).isEqualTo(1);
+		assertThat(byEmail("dup@digitoll.bg").getFullName()).isEqualTo("dup");
+	}
+
+	@Test
+	void existingUsersAreUpdatedAndOnlyGivenFieldsChange() throws Exception {
+		csv("email,fullName,contractLeaveDays", "a@digitoll.bg,Ivan Ivanov,20");
+
+		var result = csv(
+			"email,contractLeaveDays",
+			"a@digitoll.bg,25",
+			"b@digitoll.bg,20");
+
+		assertThat(result.created()).isEqualTo(1);
+		assertThat(result.updated()).isEqualTo(1);
+		var a = byEmail("a@digitoll.bg");
+		assertThat(a.getFullName()).isEqualTo("Ivan Ivanov");
+		assertThat(a.getContractLeaveDays()).isEqualTo(25);
+	}
+
+	@Test
+	void importRefreshesTheAssigneeIndex() throws Exception {
+		var admin = new User();
+		admin.setEmail("admin@digitoll.bg");
+		admin.setFullName("Admin");
+		admin.setRole(Role.ADMIN);
+		users.save(admin);
+		assigneeIndex.put(admin);
+
+		csv("email,role,assigneeIds", "appr@digitoll.bg,approver,u1;u2");
+
+		var approver = byEmail("appr@digitoll.bg");
+		assertThat(assigneeIndex.assigneesOf(approver.getId())).containsExactlyInAnyOrder("u1", "u2");
+		assertThat(assigneeIndex.approversOf("u1")).containsExactly(approver.getId());
+		assertThat(assigneeIndex.isAdmin(admin.getId())).isTrue();
+	}
+
+	@Test
+	void ndjsonRowsShareTheSamePath() throws Exception {
+		var result = userImport.importNdjson(new StringReader(String.join("\n",
+			"{\"email\":\"a@digitoll.bg\",\"fullName\":\"Ivan Ivanov\"}",
+			"{\"email\":\"b@digitoll.bg\",\"availableLeaveDays\":-1}",
+			"{broken")));
+
+		assertThat(result.created()).isEqualTo(1);
+		assertThat(result.errors()).extracting(RowError::line).containsExactly(2L, 3L);
+	}
+}
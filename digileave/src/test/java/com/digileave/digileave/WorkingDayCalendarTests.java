@@ -0,0 +1,60 @@
+package com.digileave.digileave;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.digileave.digileave.Services.WorkingDayCalendar;
+
+class WorkingDayCalendarTests {
+
+	private final WorkingDayCalendar calendar = new WorkingDayCalendar(new ClassPathResource("calendar/holidays-bg.txt"));
+
+	@Test
+	void weekendsAreNotCounted() {
+		var empty = new WorkingDayCalendar(List.of());
+		// Mon 2025-06-02 .. Sun 2025-06-15
+		assertThat(empty.workdays(LocalDate.of(2025, 6, 2), LocalDate.of(2025, 6, 15))).isEqualTo(10);
+		assertThat(empty.workdays(LocalDate.of(2025, 6, 7), LocalDate.of(2025, 6, 8))).isZero();
+	}
+
+	@Test
+	void orthodoxEasterHolidaysAreOff() {
+		// Orthodox Easter 2025 is Sunday 20 April
+		assertThat(calendar.isWorkingDay(LocalDate.of(2025, 4, 17))).isTrue();
+		assertThat(calendar.isWorkingDay(LocalDate.of(2025, 4, 18))).isFalse();
+		assertThat(calendar.isWorkingDay(LocalDate.of(2025, 4, 21))).isFalse();
+		assertThat(calendar.isWorkingDay(LocalDate.of(2025, 4, 22))).isTrue();
+	}
+
+	@Test
+	void weekendHolidaysMoveToNextWorkingDay() {
+		// 24 Dec 2022 Sat, 25 Sun, 26 Mon -> 26, 27 and 28 are off
+		assertThat(calendar.workdays(LocalDate.of(2022, 12, 26), LocalDate.of(2022, 12, 30))).isEqualTo(2);
+	}
+
+	@Test
+	void rangesSpanYearsAndFileOverrides() {
+		var custom = new WorkingDayCalendar(List.of("# company", "12-31", "2025-01-02", "WORK 2025-01-04"));
+		// Mon 2024-12-30 .. Sun 2025-01-05: 30 Dec, 1 Jan, 3 Jan, Sat 4 Jan (worked)
+		assertThat(custom.workdays(LocalDate.of(2024, 12, 30), LocalDate.of(2025, 1, 5))).isEqualTo(4);
+		assertThat(custom.workdays(LocalDate.of(2025, 1, 5), LocalDate.of(2025, 1, 4))).isZero();
+	}
+
+	@Test
+	void yearsOutsideTheSupportedRangeAreRejected() {
+		assertThatThrownBy(() -> calendar.workdays(LocalDate.of(1, 1, 1), LocalDate.of(9999, 12, 31)))
+			.isInstanceOfSatisfying(ResponseStatusException.class,
+				e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+		assertThatThrownBy(() -> calendar.isWorkingDay(LocalDate.of(2100, 1, 4)))
+			.isInstanceOf(ResponseStatusException.class);
+		assertThat(calendar.workdays(LocalDate.of(2099, 6, 1), LocalDate.of(2099, 6, 30))).isPositive();
+	}
+}